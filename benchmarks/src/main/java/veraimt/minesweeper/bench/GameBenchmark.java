@@ -0,0 +1,121 @@
+package veraimt.minesweeper.bench;
+
+import org.openjdk.jmh.annotations.*;
+import veraimt.minesweeper.game.Board;
+import veraimt.minesweeper.game.Difficulty;
+import veraimt.minesweeper.game.Game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the game engine hot paths, parameterized by board size and difficulty
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    //seed of all generated grids, so every run benchmarks the same games
+    private static final long SEED = 42;
+
+    @State(Scope.Thread)
+    public static class Params {
+        @Param({"40", "500", "2000"})
+        public int size;
+
+        @Param({"EASY", "ULTRA"})
+        public Difficulty difficulty;
+
+        //seeds of the games created during a trial
+        SplittableRandom seeds;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            seeds = new SplittableRandom(SEED);
+        }
+
+        int bombs() {
+            return difficulty.bombs(size, size);
+        }
+    }
+
+    /**
+     * Randomized game, recreated for every invocation as searching changes it
+     */
+    @State(Scope.Thread)
+    public static class FreshGame {
+        Game game;
+
+        @Setup(Level.Invocation)
+        public void setup(Params params) {
+            game = new Game(params.size, params.size, params.bombs());
+            game.randomize(params.size / 2, params.size / 2, params.seeds.nextLong());
+        }
+    }
+
+    /**
+     * Randomized game shared by all invocations of a trial
+     */
+    @State(Scope.Thread)
+    public static class RunningGame {
+        Game game;
+        int x;
+        int y;
+
+        @Setup(Level.Trial)
+        public void setup(Params params) {
+            game = new Game(params.size, params.size, params.bombs());
+            game.randomize(params.size / 2, params.size / 2, SEED);
+            //a hidden Tile far away from the first click
+            x = 0;
+            y = params.size - 1;
+        }
+    }
+
+    @Benchmark
+    public Game construct(Params params) {
+        return new Game(params.size, params.size, params.bombs());
+    }
+
+    @Benchmark
+    public Game constructAndRandomize(Params params) {
+        Game game = new Game(params.size, params.size, params.bombs());
+        game.randomize(params.size / 2, params.size / 2, params.seeds.nextLong());
+        return game;
+    }
+
+    @Benchmark
+    public Game search(FreshGame fresh, Params params) {
+        //the first click is always on a Tile with count 0, so this floods the opening
+        fresh.game.search(params.size / 2, params.size / 2);
+        return fresh.game;
+    }
+
+    @Benchmark
+    public int toggleFlag(RunningGame running) {
+        //placing and removing the Flag leaves the game unchanged, both calls check for a win
+        running.game.toggleFlag(running.x, running.y);
+        running.game.toggleFlag(running.x, running.y);
+        return running.game.flags;
+    }
+
+    @Benchmark
+    public Board placeAndRemoveMine(RunningGame running) {
+        //updates the counts of the neighbourhood twice, successor of BaseTile.evaluateCounts
+        Board board = running.game.board;
+        int i = board.index(running.x, running.y);
+        if (board.placeMine(i))
+            board.removeMine(i);
+        else if (board.removeMine(i))
+            board.placeMine(i);
+        return board;
+    }
+
+    @Benchmark
+    public Board computeCounts(RunningGame running) {
+        running.game.board.computeCounts();
+        return running.game.board;
+    }
+}
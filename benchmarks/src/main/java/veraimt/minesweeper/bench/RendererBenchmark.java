@@ -0,0 +1,90 @@
+package veraimt.minesweeper.bench;
+
+import org.openjdk.jmh.annotations.*;
+import veraimt.minesweeper.game.Difficulty;
+import veraimt.minesweeper.game.Game;
+import veraimt.minesweeper.ui.BackBuffer;
+import veraimt.minesweeper.ui.BoardRenderer;
+import veraimt.minesweeper.ui.Zoom;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks drawing a whole board into an offscreen {@link BufferedImage}, cell by cell and from a back-buffer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RendererBenchmark {
+
+    @Param({"20", "40", "200"})
+    public int size;
+
+    @Param({"EASY", "ULTRA"})
+    public Difficulty difficulty;
+
+    private BoardRenderer renderer;
+    private BackBuffer backBuffer;
+    private final Zoom zoom = Zoom.LEVELS[Zoom.DEFAULT];
+    private Rectangle view;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Game game = new Game(size, size, difficulty.bombs(size, size));
+        game.randomize(size / 2, size / 2, 42);
+        game.search(size / 2, size / 2);
+
+        //mixing in flags and revealed numbers, so every kind of cell gets drawn
+        SplittableRandom random = new SplittableRandom(42);
+        for (int n = 0; n < game.board.size() / 10; n++) {
+            int i = random.nextInt(game.board.size());
+            if (game.board.isMine(i))
+                game.toggleFlag(game.board.xOf(i), game.board.yOf(i));
+            else
+                game.search(game.board.xOf(i), game.board.yOf(i));
+        }
+
+        renderer = new BoardRenderer(game.board, loadImage("flag.png"), loadImage("bomb.png"));
+        int pixels = size * BoardRenderer.CELL_SIZE;
+        image = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+
+        view = new Rectangle(0, 0, pixels, pixels);
+        backBuffer = new BackBuffer(renderer, size, size);
+        backBuffer.paint(graphics, null, view, zoom);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graphics.dispose();
+        backBuffer.flush();
+    }
+
+    @Benchmark
+    public BufferedImage drawArea() {
+        renderer.drawArea(graphics, 0, size - 1, 0, size - 1);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage paintBackBuffer() {
+        //a single cell changed since the last paint
+        backBuffer.markDirty(size / 2, size / 2, size / 2, size / 2);
+        backBuffer.paint(graphics, null, view, zoom);
+        return image;
+    }
+
+    private static Image loadImage(String name) throws IOException {
+        return ImageIO.read(RendererBenchmark.class.getClassLoader().getResource(name));
+    }
+}
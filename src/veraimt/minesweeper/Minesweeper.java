@@ -1,11 +1,14 @@
 package veraimt.minesweeper;
 
+import veraimt.minesweeper.metrics.MetricsReporter;
 import veraimt.minesweeper.ui.GUI;
 
 import javax.swing.*;
 
 public class Minesweeper {
     public static void main(String[] args) {
+        //writes metric snapshots if -Dminesweeper.metrics.file is set
+        MetricsReporter.startConfigured();
         SwingUtilities.invokeLater(GUI::new);
     }
 }
@@ -0,0 +1,336 @@
+package veraimt.minesweeper.game;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Packed representation of the game grid.
+ * Every cell is stored as a single byte in a flat {@link CellStorage} indexed by {@code y*width+x}:
+ * <pre>
+ *  bit 7   6      5         4      3..0
+ *      -   flag   visible   mine   count of surrounding mines
+ * </pre>
+ * Large boards are stored outside of the heap, see {@link #Board(int, int, IntFunction)}.
+ * <p>
+ * Cells are addressed by int indices, so a board holds at most 2^31-1 cells, e.g. 46340*46340.
+ * Boards kept in direct buffers count against the JVM's direct memory limit instead of the heap, which defaults to
+ * the maximum heap size: a board of n cells needs {@code -XX:MaxDirectMemorySize} of at least n bytes on top of the
+ * other direct buffers, or a {@link CellStorage#mapped(java.nio.file.Path) mapped} storage, which has no such limit
+ */
+public class Board {
+    //Cell bit layout
+    public static final int COUNT_MASK = 0x0F;
+    public static final int MINE = 0x10;
+    public static final int VISIBLE = 0x20;
+    public static final int FLAG = 0x40;
+    //position of the mine bit
+    private static final int MINE_SHIFT = 4;
+
+    //Boards with at least this many cells are kept off heap, can be set with -Dminesweeper.board.offHeapThreshold
+    private static final int DEFAULT_OFF_HEAP_THRESHOLD =
+            Integer.getInteger("minesweeper.board.offHeapThreshold", 100_000_000);
+
+    //the lowest bit and the count bits of every byte of a word
+    private static final long LOW_BYTES = 0x0101010101010101L;
+    private static final long COUNT_BYTES = LOW_BYTES * COUNT_MASK;
+
+    public final int width;
+    public final int height;
+
+    //one byte per cell, row by row
+    private final CellStorage cells;
+
+    /**
+     * Creates an empty board with the given width and height, kept off heap if it has at least
+     * -Dminesweeper.board.offHeapThreshold cells (default 100 million)
+     * @param width width of the board
+     * @param height height of the board
+     */
+    public Board(int width, int height) {
+        this(width, height, (long) width * height >= DEFAULT_OFF_HEAP_THRESHOLD
+                ? CellStorage::direct : CellStorage::heap);
+    }
+
+    /**
+     * Creates an empty board with the given width and height, stored by the given allocator.
+     * E.g. {@code CellStorage.mapped(file)} allows boards larger than the available memory
+     * @param width width of the board
+     * @param height height of the board
+     * @param allocator creates the storage of the cells, given the amount of cells
+     * @throws IllegalArgumentException if the board is empty or has more than 2^31-1 cells
+     */
+    public Board(int width, int height, IntFunction<CellStorage> allocator) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("Invalid board size " + width + "*" + height);
+        if ((long) width * height > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("A " + width + "*" + height + " board is too large");
+
+        this.width = width;
+        this.height = height;
+        this.cells = allocator.apply(width * height);
+    }
+
+    //Coordinates
+
+    /**
+     * Converts coordinates to the index of the cell
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @return index of the cell in the packed array
+     */
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    public int xOf(int index) {
+        return index % width;
+    }
+
+    public int yOf(int index) {
+        return index / width;
+    }
+
+    public int size() {
+        return cells.size();
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * Writes the indices of all neighbours of the given cell into the given array
+     * @param index index of the cell
+     * @param out array with space for at least 8 indices
+     * @return amount of neighbours written
+     */
+    public int neighbours(int index, int[] out) {
+        int x = xOf(index);
+        int y = yOf(index);
+
+        int xMin = Math.max(0, x-1);
+        int xMax = Math.min(width-1, x+1);
+        int yMin = Math.max(0, y-1);
+        int yMax = Math.min(height-1, y+1);
+
+        int n = 0;
+        for (int y1 = yMin; y1 <= yMax; y1++) {
+            for (int x1 = xMin; x1 <= xMax; x1++) {
+                int i = y1 * width + x1;
+                if (i != index)
+                    out[n++] = i;
+            }
+        }
+        return n;
+    }
+
+    //Cell access
+
+    /**
+     * Returns the raw bits of the cell at the given index
+     * @param index index of the cell
+     * @return the bits of the cell, see the class description for the layout
+     */
+    public int get(int index) {
+        return cells.get(index);
+    }
+
+    public boolean isMine(int index) {
+        return (cells.get(index) & MINE) != 0;
+    }
+
+    public boolean isVisible(int index) {
+        return (cells.get(index) & VISIBLE) != 0;
+    }
+
+    public boolean hasFlag(int index) {
+        return (cells.get(index) & FLAG) != 0;
+    }
+
+    /**
+     * Returns the amount of mines surrounding the cell at the given index
+     * @param index index of the cell
+     * @return count of the surrounding mines (0-8)
+     */
+    public int getCount(int index) {
+        return cells.get(index) & COUNT_MASK;
+    }
+
+    public void setVisible(int index, boolean visible) {
+        setBit(index, VISIBLE, visible);
+    }
+
+    public void setFlag(int index, boolean flag) {
+        setBit(index, FLAG, flag);
+    }
+
+    private void setBit(int index, int bit, boolean value) {
+        if (value)
+            cells.set(index, (byte) (cells.get(index) | bit));
+        else
+            cells.set(index, (byte) (cells.get(index) & ~bit));
+    }
+
+    //Mines
+
+    /**
+     * Sets or clears the mine bit of the cell at the given index without touching any counts.
+     * Meant for bulk placement followed by {@link #computeCounts()}
+     * @param index index of the cell
+     * @param mine whether the cell contains a mine
+     */
+    public void setMine(int index, boolean mine) {
+        setBit(index, MINE, mine);
+    }
+
+    /**
+     * Places a mine at the given index and increments the counts of the surrounding cells
+     * @param index index of the cell
+     * @return true if the mine was placed, false if there already was a mine
+     */
+    public boolean placeMine(int index) {
+        if (isMine(index))
+            return false;
+        cells.set(index, (byte) (cells.get(index) | MINE));
+        addToNeighbourhood(index, 1);
+        return true;
+    }
+
+    /**
+     * Removes the mine at the given index and decrements the counts of the surrounding cells
+     * @param index index of the cell
+     * @return true if the mine was removed, false if there was no mine
+     */
+    public boolean removeMine(int index) {
+        if (!isMine(index))
+            return false;
+        cells.set(index, (byte) (cells.get(index) & ~MINE));
+        addToNeighbourhood(index, -1);
+        return true;
+    }
+
+    /**
+     * Adds the given value to the count of every cell in the 3x3 neighbourhood of the given cell (excluding itself)
+     */
+    private void addToNeighbourhood(int index, int value) {
+        int x = xOf(index);
+        int y = yOf(index);
+
+        int xMin = Math.max(0, x-1);
+        int xMax = Math.min(width-1, x+1);
+        int yMin = Math.max(0, y-1);
+        int yMax = Math.min(height-1, y+1);
+
+        for (int y1 = yMin; y1 <= yMax; y1++) {
+            for (int x1 = xMin; x1 <= xMax; x1++) {
+                int i = y1 * width + x1;
+                if (i != index)
+                    cells.set(i, (byte) (cells.get(i) + value));
+            }
+        }
+    }
+
+    /**
+     * Recomputes the count of every cell from the placed mines.
+     * The counts are a 3x3 box sum of the mine bits, computed separably: the mines of every row are summed
+     * horizontally once, then the count of a cell is the sum of the row sums above, at and below it minus its own
+     * mine. Eight cells are processed at once as the bytes of a long, no byte can overflow into the next one
+     * as a sum is at most 9. Only the sums of three rows are kept
+     */
+    public void computeCounts() {
+        int words = (width + 7) >>> 3;
+        long[] mines = new long[words];
+        long[] nextMines = new long[words];
+        long[] above = new long[words];
+        long[] middle = new long[words];
+        long[] below = new long[words];
+        rowMines(0, mines);
+        rowSums(mines, middle);
+
+        for (int y = 0; y < height; y++) {
+            if (y + 1 < height) {
+                rowMines(y + 1, nextMines);
+                rowSums(nextMines, below);
+            } else {
+                Arrays.fill(below, 0);
+            }
+
+            int row = y * width;
+            for (int w = 0; w < words; w++) {
+                long counts = above[w] + middle[w] + below[w] - mines[w];
+                int x = w << 3;
+                if (x + 8 <= width) {
+                    cells.setWord(row + x, (cells.getWord(row + x) & ~COUNT_BYTES) | counts);
+                    continue;
+                }
+                //cells at the end of a row that don't fill a word
+                for (int k = 0; x + k < width; k++) {
+                    int i = row + x + k;
+                    cells.set(i, (byte) ((cells.get(i) & ~COUNT_MASK) | ((int) (counts >>> (k << 3)) & COUNT_MASK)));
+                }
+            }
+
+            long[] rotated = above;
+            above = middle;
+            middle = below;
+            below = rotated;
+            rotated = mines;
+            mines = nextMines;
+            nextMines = rotated;
+        }
+    }
+
+    /**
+     * Collects the mine bits of the given row, one byte per cell set to 1 for a mine
+     * @param mines words the bits are written to, bytes after the end of the row are 0
+     */
+    private void rowMines(int y, long[] mines) {
+        int row = y * width;
+        int full = width >>> 3;
+        for (int w = 0; w < full; w++)
+            mines[w] = (cells.getWord(row + (w << 3)) >>> MINE_SHIFT) & LOW_BYTES;
+
+        if (full < mines.length) {
+            long word = 0;
+            for (int x = full << 3; x < width; x++)
+                word |= (long) ((cells.get(row + x) & MINE) >>> MINE_SHIFT) << ((x & 7) << 3);
+            mines[full] = word;
+        }
+    }
+
+    /**
+     * Sums the mines of every cell of a row and its left and right neighbour
+     * @param mines mine bits of the row
+     * @param sums words the sums are written to
+     */
+    private static void rowSums(long[] mines, long[] sums) {
+        long previous = 0;
+        for (int w = 0; w < mines.length; w++) {
+            long current = mines[w];
+            long next = w + 1 < mines.length ? mines[w + 1] : 0;
+            //the left neighbour of the first byte is the last byte of the previous word and vice versa
+            long left = (current << 8) | (previous >>> 56);
+            long right = (current >>> 8) | (next << 56);
+            sums[w] = left + current + right;
+            previous = current;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = index(x, y);
+                if (hasFlag(i))
+                    s.append('F');
+                else if (isMine(i))
+                    s.append('*');
+                else
+                    s.append(getCount(i));
+            }
+            s.append('\n');
+        }
+        return s.toString();
+    }
+}
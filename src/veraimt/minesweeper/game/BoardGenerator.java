@@ -0,0 +1,81 @@
+package veraimt.minesweeper.game;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Places mines on a {@link Board} in time linear to the amount of mines.
+ * <p>
+ * The mine positions are sampled with Floyd's algorithm over the cells outside the safe zone
+ * (the 3x3 neighbourhood of the first click), so no position is ever drawn twice and no placement is rejected.
+ * The counts of all cells are computed afterwards in a single pass.
+ * The positions only depend on the values drawn from the generator, so a seeded generator reproduces a layout
+ */
+public final class BoardGenerator {
+
+    private BoardGenerator() {
+    }
+
+    /**
+     * Places the given amount of mines on the given empty board, keeping the first clicked cell and its neighbours free
+     * @param board empty board
+     * @param mines amount of mines to be placed
+     * @param xFirstClick x-coordinate of the first click
+     * @param yFirstClick y-coordinate of the first click
+     * @param random source of randomness
+     * @throws IllegalArgumentException if the mines don't fit outside the safe zone
+     */
+    public static void placeMines(Board board, int mines, int xFirstClick, int yFirstClick, RandomGenerator random) {
+        int[] safe = safeZone(board, xFirstClick, yFirstClick);
+        int candidates = board.size() - safe.length;
+
+        if (mines < 0 || mines > candidates)
+            throw new IllegalArgumentException(mines + " Bombs don't fit into a " + board.width + "*" + board.height
+                    + " grid without touching the first click at " + xFirstClick + "," + yFirstClick);
+
+        //Floyd's algorithm: draws 'mines' distinct candidates from [0, candidates)
+        for (int j = candidates - mines; j < candidates; j++) {
+            int t = toCell(random.nextInt(j + 1), safe);
+            if (board.isMine(t))
+                //t was drawn before, j can't have been drawn yet
+                t = toCell(j, safe);
+            board.setMine(t, true);
+        }
+
+        board.computeCounts();
+    }
+
+    /**
+     * Returns the sorted indices of the first clicked cell and its neighbours
+     */
+    private static int[] safeZone(Board board, int x, int y) {
+        int xMin = Math.max(0, x-1);
+        int xMax = Math.min(board.width-1, x+1);
+        int yMin = Math.max(0, y-1);
+        int yMax = Math.min(board.height-1, y+1);
+
+        int[] safe = new int[(xMax - xMin + 1) * (yMax - yMin + 1)];
+        int n = 0;
+        //row by row, so the indices are ascending
+        for (int y1 = yMin; y1 <= yMax; y1++)
+            for (int x1 = xMin; x1 <= xMax; x1++)
+                safe[n++] = board.index(x1, y1);
+        return safe;
+    }
+
+    /**
+     * Maps a candidate number to the index of a cell, skipping the cells of the safe zone
+     * @param candidate number in [0, cells - safe zone size)
+     * @param safe sorted indices of the safe zone
+     * @return index of the cell
+     */
+    private static int toCell(int candidate, int[] safe) {
+        int index = candidate;
+        for (int s : safe) {
+            if (s <= index)
+                index++;
+            else
+                break;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,184 @@
+package veraimt.minesweeper.game;
+
+import java.util.Arrays;
+
+/**
+ * Difficulty metrics of a Bomb layout, computed in a single row by row pass over the board.
+ * <ul>
+ *     <li>openings: 8-connected regions of Tiles with count 0, a single click reveals an opening and its border</li>
+ *     <li>isolated numbers: Tiles with a count that don't border an opening and have to be clicked one by one</li>
+ *     <li>3BV: minimum amount of clicks needed to reveal the board, openings + isolated numbers</li>
+ *     <li>safe regions: 8-connected regions of Tiles without a Bomb</li>
+ * </ul>
+ * No Tile of a safe region borders a Tile of another one, so nothing revealed in one region tells anything about
+ * another one. The metrics describe the layout only, they don't estimate how many guesses a game needs
+ *
+ * @param bbbv 3BV, the minimum amount of clicks
+ * @param openings amount of openings
+ * @param isolatedNumbers amount of isolated numbers
+ * @param safeRegions amount of safe regions
+ */
+public record BoardMetrics(int bbbv, int openings, int isolatedNumbers, int safeRegions) {
+
+    /**
+     * Computes the metrics of the Bombs and counts of the given board
+     * @param board the board, visibility and Flags are ignored
+     * @return the metrics of the board
+     */
+    public static BoardMetrics of(Board board) {
+        int width = board.width;
+        int height = board.height;
+
+        //regions are labelled row by row, only the labels of the previous and the current row are kept
+        Labels zero = new Labels(width);
+        Labels safe = new Labels(width);
+        //per row, 1 for cells in the same row next to or at a Tile with count 0, for the rows y-2, y-1 and y
+        byte[] above = new byte[width];
+        byte[] middle = new byte[width];
+        byte[] below = new byte[width];
+        int isolated = 0;
+
+        for (int y = 0; y < height; y++) {
+            zero.nextRow();
+            safe.nextRow();
+            Arrays.fill(below, (byte) 0);
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                int cell = board.get(row + x);
+                if ((cell & Board.MINE) != 0)
+                    continue;
+                safe.label(x);
+                if ((cell & Board.COUNT_MASK) == 0) {
+                    zero.label(x);
+                    if (x > 0)
+                        below[x - 1] = 1;
+                    below[x] = 1;
+                    if (x + 1 < width)
+                        below[x + 1] = 1;
+                }
+            }
+
+            //all neighbours of the previous row are known now
+            if (y > 0)
+                isolated += isolatedNumbers(board, y - 1, above, middle, below);
+            byte[] rotated = above;
+            above = middle;
+            middle = below;
+            below = rotated;
+        }
+        Arrays.fill(below, (byte) 0);
+        isolated += isolatedNumbers(board, height - 1, above, middle, below);
+
+        int openings = zero.regions;
+        return new BoardMetrics(openings + isolated, openings, isolated, safe.regions);
+    }
+
+    /**
+     * Counts the Tiles with a count in the given row that don't border a Tile with count 0
+     * @param above cells of the row above that are next to a Tile with count 0
+     * @param middle the same for the given row
+     * @param below the same for the row below
+     */
+    private static int isolatedNumbers(Board board, int y, byte[] above, byte[] middle, byte[] below) {
+        int isolated = 0;
+        int row = y * board.width;
+        for (int x = 0; x < board.width; x++) {
+            int cell = board.get(row + x);
+            //without short circuits, the outcome is too random for branches
+            boolean number = (cell & Board.MINE) == 0 & (cell & Board.COUNT_MASK) != 0;
+            if (number & (above[x] | middle[x] | below[x]) == 0)
+                isolated++;
+        }
+        return isolated;
+    }
+
+    /**
+     * Connected component labelling of one kind of cell. Labels are merged with union-find when a cell connects
+     * two of them, so the amount of regions is the amount of labels minus the amount of merges
+     */
+    private static class Labels {
+        //labels of the previous and the current row, 0 for cells of another kind
+        private int[] previous;
+        private int[] current;
+        //union-find forest of the labels, label 0 is unused
+        private int[] parent = new int[64];
+        private int labels = 1;
+        private int regions;
+
+        private Labels(int width) {
+            previous = new int[width];
+            current = new int[width];
+        }
+
+        private void nextRow() {
+            int[] row = previous;
+            previous = current;
+            current = row;
+            Arrays.fill(current, 0);
+        }
+
+        /**
+         * Labels the cell at the given column of the current row, joining the labels of its already labelled
+         * neighbours: left, top left, top and top right.
+         * Labelled cells next to each other in the previous row are already joined, as are the left neighbour and
+         * the cells above it, so most cells take over a label without looking up its region
+         */
+        private void label(int x) {
+            int left = x > 0 ? current[x - 1] : 0;
+            int topLeft = x > 0 ? previous[x - 1] : 0;
+            int top = previous[x];
+            int topRight = x + 1 < previous.length ? previous[x + 1] : 0;
+
+            int label;
+            if (left != 0)
+                label = top == 0 ? join(left, topRight) : left;
+            else if (top != 0)
+                label = top;
+            else
+                label = join(topLeft, topRight);
+
+            if (label == 0) {
+                if (labels == parent.length)
+                    parent = Arrays.copyOf(parent, parent.length * 2);
+                label = labels++;
+                parent[label] = label;
+                regions++;
+            }
+            current[x] = label;
+        }
+
+        /**
+         * Merges the region of the neighbour's label into the region of the cell
+         * @param label label of the cell so far, 0 if it has none yet
+         * @param neighbour label of the neighbour, 0 if it isn't of this kind
+         * @return the label of the cell
+         */
+        private int join(int label, int neighbour) {
+            if (neighbour == 0)
+                return label;
+            if (label == 0)
+                return neighbour;
+            int root = find(neighbour);
+            int own = find(label);
+            if (own == root)
+                return own;
+            //the older label becomes the root, it usually belongs to the larger region
+            regions--;
+            if (root < own) {
+                parent[own] = root;
+                return root;
+            }
+            parent[root] = own;
+            return own;
+        }
+
+        private int find(int label) {
+            while (parent[label] != label) {
+                //path halving
+                parent[label] = parent[parent[label]];
+                label = parent[label];
+            }
+            return label;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package veraimt.minesweeper.game;
+
+import veraimt.minesweeper.metrics.Histogram;
+import veraimt.minesweeper.metrics.Metrics;
+
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates Bomb layouts ahead of time on background threads, so the first click doesn't wait for the generation.
+ * <p>
+ * Layouts are generated for the size and amount of Bombs of the current game with the safe zone at a random cell
+ * away from the border. On the first click, the cells of the clicked safe zone are swapped with the cells of the
+ * layout's safe zone, which moves the Bombs out of the clicked zone without changing the distribution of the layout:
+ * any one-to-one mapping between the cells outside the two zones keeps uniformly placed Bombs uniform.
+ * A first click at the border has a smaller safe zone, so the mapping doesn't exist and the Bombs are placed
+ * directly instead.
+ * Every layout is generated from its own seed, which determines the safe zone and the Bombs,
+ * so {@link #layout(int, int, int, long, int, int)} reproduces the Bombs of a game from its seed
+ */
+public class BoardPool implements BombPlacer {
+    //Layouts kept ready for the current game settings
+    private static final int CAPACITY = 4;
+    //largest grid layouts are kept for, bigger layouts would take up too much memory
+    private static final int MAX_CELLS = 4_000_000;
+
+    //time to generate a layout in the background
+    private static final Histogram GENERATION = Metrics.histogram("pool.generation", Histogram.NANOS);
+
+    private final ExecutorService executor;
+
+    //settings layouts are currently generated for
+    private volatile Key key;
+    private final BlockingQueue<Layout> layouts = new LinkedBlockingQueue<>();
+    //generations started but not finished yet
+    private final AtomicInteger scheduled = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public BoardPool() {
+        this(Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
+    /**
+     * @param threads amount of background threads generating layouts
+     */
+    public BoardPool(int threads) {
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "BoardPool");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts generating layouts for the given game settings, layouts for other settings are discarded
+     * @param width width of the game grid
+     * @param height height of the game grid
+     * @param bombs amount of Bombs
+     */
+    public synchronized void prepare(int width, int height, int bombs) {
+        Key newKey = new Key(width, height, bombs);
+        if (!newKey.equals(key)) {
+            key = newKey;
+            layouts.clear();
+        }
+        fill();
+    }
+
+    /**
+     * Places the Bombs of the given blank game, keeping the clicked cell and its neighbours free.
+     * Uses a pooled layout if available and the first click is away from the border, otherwise the Bombs are
+     * placed directly
+     * @param game blank game
+     * @param xFirstClick x-coordinate of the first click
+     * @param yFirstClick y-coordinate of the first click
+     */
+    @Override
+    public void place(Game game, int xFirstClick, int yFirstClick) {
+        Key gameKey = new Key(game.width, game.height, game.getBombs());
+        Layout layout = gameKey.equals(key) && inside(game.width, game.height, xFirstClick, yFirstClick)
+                ? layouts.poll() : null;
+        //layouts finished after the settings changed are skipped
+        while (layout != null && !layout.key.equals(gameKey))
+            layout = layouts.poll();
+
+        if (layout == null) {
+            misses.incrementAndGet();
+            game.randomize(xFirstClick, yFirstClick);
+        } else {
+            hits.incrementAndGet();
+            game.placeBombs(transform(layout, xFirstClick, yFirstClick), OptionalLong.of(layout.seed));
+        }
+
+        synchronized (this) {
+            if (gameKey.equals(key))
+                fill();
+        }
+    }
+
+    /**
+     * Generates the Bombs a pooled layout with the given seed places on a game
+     * @param width width of the game grid
+     * @param height height of the game grid
+     * @param bombs amount of Bombs
+     * @param seed seed of the layout
+     * @param xFirstClick x-coordinate of the first click
+     * @param yFirstClick y-coordinate of the first click
+     * @return indices of the Bombs
+     * @throws IllegalArgumentException if the settings can't be pooled or the first click is at the border
+     */
+    static int[] layout(int width, int height, int bombs, long seed, int xFirstClick, int yFirstClick) {
+        Key key = new Key(width, height, bombs);
+        if (!key.poolable())
+            throw new IllegalArgumentException(width + "*" + height + " grids with " + bombs
+                    + " Bombs can't be pooled");
+        if (!inside(width, height, xFirstClick, yFirstClick))
+            throw new IllegalArgumentException("Pooled layouts can't be used for a first click at the border "
+                    + xFirstClick + "," + yFirstClick);
+        return transform(generate(key, seed), xFirstClick, yFirstClick);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return amount of layouts ready to be used
+     */
+    public int size() {
+        return layouts.size();
+    }
+
+    /**
+     * Stops the background threads
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Schedules generations until the pool is full
+     */
+    private void fill() {
+        Key k = key;
+        if (k == null || !k.poolable())
+            return;
+        while (layouts.size() + scheduled.get() < CAPACITY) {
+            scheduled.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    Layout layout = generate(k, ThreadLocalRandom.current().nextLong());
+                    if (k.equals(key))
+                        layouts.offer(layout);
+                } finally {
+                    scheduled.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private static Layout generate(Key key, long seed) {
+        long start = Metrics.now();
+        SplittableRandom random = new SplittableRandom(seed);
+        //safe zone away from the border, so its 3x3 neighbourhood is complete
+        int sx = 1 + random.nextInt(key.width - 2);
+        int sy = 1 + random.nextInt(key.height - 2);
+
+        Board board = new Board(key.width, key.height);
+        BoardGenerator.placeMines(board, key.bombs, sx, sy, random);
+
+        int[] bombs = new int[key.bombs];
+        int n = 0;
+        for (int i = 0; i < board.size(); i++) {
+            if (board.isMine(i))
+                bombs[n++] = i;
+        }
+        GENERATION.recordSince(start);
+        return new Layout(key, seed, sx, sy, bombs);
+    }
+
+    /**
+     * @return true if the 3x3 neighbourhood of the cell lies completely inside the grid
+     */
+    private static boolean inside(int width, int height, int x, int y) {
+        return x >= 1 && x < width - 1 && y >= 1 && y < height - 1;
+    }
+
+    /**
+     * Moves the Bombs of the layout out of the safe zone around the given cell, which must not be at the border.
+     * Every cell of the clicked zone outside the layout's zone is swapped with a cell of the layout's zone outside
+     * the clicked zone, the other cells keep their Bombs
+     * @return indices of the moved Bombs
+     */
+    private static int[] transform(Layout layout, int x, int y) {
+        int width = layout.key.width;
+        //cells only in the clicked zone and their partners only in the layout's zone, in the same order
+        int[] clicked = new int[9];
+        int[] partners = new int[9];
+        int n = 0;
+        int p = 0;
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                if (Math.abs(x + dx - layout.sx) > 1 || Math.abs(y + dy - layout.sy) > 1)
+                    clicked[n++] = (y + dy) * width + x + dx;
+                if (Math.abs(layout.sx + dx - x) > 1 || Math.abs(layout.sy + dy - y) > 1)
+                    partners[p++] = (layout.sy + dy) * width + layout.sx + dx;
+            }
+        }
+
+        int[] bombs = layout.bombs.clone();
+        for (int b = 0; b < bombs.length; b++) {
+            for (int k = 0; k < n; k++) {
+                if (bombs[b] == clicked[k]) {
+                    bombs[b] = partners[k];
+                    break;
+                }
+            }
+        }
+        return bombs;
+    }
+
+    /**
+     * Game settings layouts are generated for
+     */
+    private record Key(int width, int height, int bombs) {
+        /**
+         * @return true if a complete safe zone fits next to the Bombs and the grid isn't too big to keep
+         */
+        boolean poolable() {
+            return width >= 3 && height >= 3 && bombs <= (long) width * height - 9
+                    && (long) width * height <= MAX_CELLS;
+        }
+    }
+
+    /**
+     * Pre-generated Bomb positions with the center of their safe zone
+     */
+    private record Layout(Key key, long seed, int sx, int sy, int[] bombs) {
+    }
+}
@@ -0,0 +1,33 @@
+package veraimt.minesweeper.game;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Places the Bombs of a blank game on its first click, used by the {@link GameLoop}
+ */
+@FunctionalInterface
+public interface BombPlacer {
+
+    /**
+     * Places the Bombs of the given blank game, keeping the clicked cell and its neighbours free
+     * @param game blank game
+     * @param xFirstClick x-coordinate of the first click
+     * @param yFirstClick y-coordinate of the first click
+     */
+    void place(Game game, int xFirstClick, int yFirstClick);
+
+    /**
+     * Starts generating the Bombs for the given first click on another thread, for placers too slow to block the
+     * {@link GameLoop}. The loop keeps the commands submitted meanwhile and applies them once the Bombs are placed
+     * @param width width of the game grid
+     * @param height height of the game grid
+     * @param bombs amount of Bombs
+     * @param xFirstClick x-coordinate of the first click
+     * @param yFirstClick y-coordinate of the first click
+     * @return the indices of the Bombs once generated, null if the Bombs are placed by
+     * {@link #place(Game, int, int)} on the loop thread
+     */
+    default CompletableFuture<int[]> generate(int width, int height, int bombs, int xFirstClick, int yFirstClick) {
+        return null;
+    }
+}
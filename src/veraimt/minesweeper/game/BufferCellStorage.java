@@ -0,0 +1,93 @@
+package veraimt.minesweeper.game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * {@link CellStorage} outside of the heap, split into chunks of direct or memory mapped buffers as a single buffer
+ * can't hold more than 2 GB. Only absolute accesses are used, which don't change the state of the buffers
+ */
+final class BufferCellStorage implements CellStorage {
+    //cells per chunk, a power of 2 so the chunk of a cell is a shift
+    private static final int CHUNK_SHIFT = 30;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final ByteBuffer[] chunks;
+    private final int size;
+
+    private BufferCellStorage(ByteBuffer[] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    static BufferCellStorage direct(int size) {
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount(size)];
+        for (int c = 0; c < chunks.length; c++)
+            chunks[c] = ByteBuffer.allocateDirect(chunkSize(size, c)).order(ByteOrder.LITTLE_ENDIAN);
+        return new BufferCellStorage(chunks, size);
+    }
+
+    /**
+     * Maps the cells from the given region of the file, the file grows if it is too short
+     * @param channel readable and writable channel of the file
+     * @param position offset of the first cell in the file
+     * @param size amount of cells
+     */
+    static BufferCellStorage map(FileChannel channel, long position, int size) throws IOException {
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount(size)];
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE, position + ((long) c << CHUNK_SHIFT),
+                    chunkSize(size, c)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new BufferCellStorage(chunks, size);
+    }
+
+    private static int chunkCount(int size) {
+        return Math.max(1, (int) (((long) size + CHUNK_SIZE - 1) >>> CHUNK_SHIFT));
+    }
+
+    private static int chunkSize(int size, int chunk) {
+        return (int) Math.min(CHUNK_SIZE, size - ((long) chunk << CHUNK_SHIFT));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public byte get(int index) {
+        return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    @Override
+    public void set(int index, byte value) {
+        chunks[index >>> CHUNK_SHIFT].put(index & CHUNK_MASK, value);
+    }
+
+    @Override
+    public long getWord(int index) {
+        int offset = index & CHUNK_MASK;
+        if (offset <= CHUNK_SIZE - 8)
+            return chunks[index >>> CHUNK_SHIFT].getLong(offset);
+        //the word continues in the next chunk
+        long word = 0;
+        for (int k = 0; k < 8; k++)
+            word |= (get(index + k) & 0xFFL) << (k << 3);
+        return word;
+    }
+
+    @Override
+    public void setWord(int index, long word) {
+        int offset = index & CHUNK_MASK;
+        if (offset <= CHUNK_SIZE - 8) {
+            chunks[index >>> CHUNK_SHIFT].putLong(offset, word);
+            return;
+        }
+        for (int k = 0; k < 8; k++)
+            set(index + k, (byte) (word >>> (k << 3)));
+    }
+}
@@ -0,0 +1,76 @@
+package veraimt.minesweeper.game;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of cell indices backed by a primitive int array.
+ * Meant to be reused, {@link #clear()} keeps the allocated capacity
+ */
+public class CellList {
+    private int[] cells;
+    private int size;
+
+    public CellList() {
+        this(64);
+    }
+
+    public CellList(int capacity) {
+        cells = new int[Math.max(1, capacity)];
+    }
+
+    public void add(int index) {
+        if (size == cells.length)
+            cells = Arrays.copyOf(cells, cells.length * 2);
+        cells[size++] = index;
+    }
+
+    /**
+     * Removes and returns the last index of the list
+     * @return the removed index
+     */
+    public int removeLast() {
+        if (size == 0)
+            throw new IllegalStateException("CellList is empty");
+        return cells[--size];
+    }
+
+    public int get(int i) {
+        return cells[i];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Releases the capacity above the given one, e.g. after a rare large use of a reused list
+     * @param capacity capacity kept at most, never less than the current size
+     */
+    public void trim(int capacity) {
+        if (cells.length > capacity)
+            cells = Arrays.copyOf(cells, Math.max(Math.max(1, capacity), size));
+    }
+
+    /**
+     * @return a copy of the contained indices
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(cells, size);
+    }
+
+    @Override
+    public String toString() {
+        return "CellList{" +
+                "size=" + size +
+                ", cells=" + Arrays.toString(toArray()) +
+                '}';
+    }
+}
@@ -0,0 +1,87 @@
+package veraimt.minesweeper.game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * One byte per cell of a {@link Board}, initially 0.
+ * <p>
+ * {@link #heap(int)} keeps the bytes in an array on the Java heap. For giant boards {@link #direct(int)} and
+ * {@link #mapped(Path)} keep them outside of the heap, in direct or memory mapped buffers of at most 1 GB each,
+ * so they neither count against the heap size nor are copied by the garbage collector.
+ * Different cells may be written by different threads at the same time
+ */
+public interface CellStorage {
+
+    /**
+     * @return amount of cells
+     */
+    int size();
+
+    byte get(int index);
+
+    void set(int index, byte value);
+
+    /**
+     * Reads eight consecutive cells at once
+     * @param index index of the first cell, there have to be at least 8 cells from it on
+     * @return the cells as a long, the cell at the given index is the lowest byte
+     */
+    long getWord(int index);
+
+    /**
+     * Writes eight consecutive cells at once
+     * @param index index of the first cell, there have to be at least 8 cells from it on
+     * @param word the cells as a long, the cell at the given index is the lowest byte
+     */
+    void setWord(int index, long word);
+
+    /**
+     * @param size amount of cells
+     * @return storage in a byte array on the heap
+     */
+    static CellStorage heap(int size) {
+        return new HeapCellStorage(size);
+    }
+
+    /**
+     * @param size amount of cells
+     * @return storage in direct buffers outside of the heap, freed when it is garbage collected
+     */
+    static CellStorage direct(int size) {
+        return BufferCellStorage.direct(size);
+    }
+
+    /**
+     * Creates an allocator mapping consecutive regions of the given file, so the cells are paged in and out by the
+     * operating system instead of taking up memory. The file is created or truncated first.
+     * <p>
+     * The allocator may be shared by several boards and threads, every storage gets its own region of the file.
+     * Java offers no way to unmap a file, so the regions stay mapped until their storages are garbage collected.
+     * Until then the file must not be passed to another allocator, which would truncate it under the mapped storages,
+     * and on Windows it can't be deleted
+     * @param file file the cells are stored in
+     * @return allocator of storages mapped from the file, throws an {@link UncheckedIOException} if mapping fails
+     * @throws IOException if the file can't be created or truncated
+     */
+    static IntFunction<CellStorage> mapped(Path file) throws IOException {
+        FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING).close();
+        AtomicLong end = new AtomicLong();
+        return size -> {
+            //the region is reserved before it is mapped, so storages allocated at the same time don't overlap
+            long position = end.getAndAdd(size);
+            //the mapping stays valid after the channel is closed
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return BufferCellStorage.map(channel, position, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cells can't be mapped from " + file, e);
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package veraimt.minesweeper.game;
+
+/**
+ * Difficulty levels, defined by the share of cells containing a Bomb
+ */
+public enum Difficulty {
+    EASY(.05f),
+    MEDIUM(.1f),
+    HARD(.15f),
+    ULTRA(.25f);
+
+    public final float fac;
+    Difficulty(float fac) {
+        this.fac = fac;
+    }
+
+    /**
+     * Returns the amount of Bombs for a grid of the given size
+     * @param width width of the game grid
+     * @param height height of the game grid
+     * @return amount of Bombs
+     */
+    public int bombs(int width, int height) {
+        return (int) ((double) width * height * fac);
+    }
+}
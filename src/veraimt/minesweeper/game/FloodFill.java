@@ -0,0 +1,85 @@
+package veraimt.minesweeper.game;
+
+import java.util.Arrays;
+
+/**
+ * Iterative flood-fill used for revealing Tiles.
+ * Uses an explicit work stack instead of recursion, so large empty regions can't overflow the thread stack.
+ * A cell is marked visible as soon as it is pushed, so the visible bit of the {@link Board} doubles as visited marker
+ */
+public class FloodFill {
+    private final Board board;
+
+    //work stack, reused between calls
+    private int[] stack = new int[64];
+
+    public FloodFill(Board board) {
+        this.board = board;
+    }
+
+    /**
+     * Reveals the cell at the given index and, if its count is 0, all connected cells
+     * @param start index of the cell to start at
+     * @param revealed list the indices of all revealed cells are appended to
+     * @return amount of Flags that were removed from revealed cells
+     */
+    public int reveal(int start, CellList revealed) {
+        if (board.isMine(start) || board.isVisible(start))
+            return 0;
+
+        int removedFlags = reveal(start, revealed, 0);
+        int top = 0;
+        stack[top++] = start;
+
+        final int width = board.width;
+        final int height = board.height;
+
+        while (top > 0) {
+            int i = stack[--top];
+
+            //only if count == 0 the neighbours are revealed
+            if (board.getCount(i) != 0)
+                continue;
+
+            int x = i % width;
+            int y = i / width;
+
+            int xMin = Math.max(0, x-1);
+            int xMax = Math.min(width-1, x+1);
+            int yMin = Math.max(0, y-1);
+            int yMax = Math.min(height-1, y+1);
+
+            for (int y1 = yMin; y1 <= yMax; y1++) {
+                for (int x1 = xMin; x1 <= xMax; x1++) {
+                    int n = y1 * width + x1;
+                    if (board.isVisible(n) || board.isMine(n))
+                        continue;
+
+                    removedFlags = reveal(n, revealed, removedFlags);
+                    if (board.getCount(n) != 0)
+                        continue;
+
+                    if (top == stack.length)
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    stack[top++] = n;
+                }
+            }
+        }
+
+        return removedFlags;
+    }
+
+    /**
+     * Reveals a single cell, removing its Flag if it has one
+     * @return the updated amount of removed Flags
+     */
+    private int reveal(int i, CellList revealed, int removedFlags) {
+        if (board.hasFlag(i)) {
+            board.setFlag(i, false);
+            removedFlags++;
+        }
+        board.setVisible(i, true);
+        revealed.add(i);
+        return removedFlags;
+    }
+}
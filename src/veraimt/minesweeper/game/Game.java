@@ -1,34 +1,77 @@
 package veraimt.minesweeper.game;
 
 import veraimt.minesweeper.game.tiles.BaseTile;
-import veraimt.minesweeper.game.tiles.Bomb;
-import veraimt.minesweeper.game.tiles.Tile;
+import veraimt.minesweeper.jfr.ChordEvent;
+import veraimt.minesweeper.jfr.FlagEvent;
+import veraimt.minesweeper.jfr.GameEndEvent;
+import veraimt.minesweeper.jfr.RandomizeEvent;
+import veraimt.minesweeper.jfr.SearchEvent;
+import veraimt.minesweeper.metrics.Histogram;
+import veraimt.minesweeper.metrics.Metrics;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
 
 public class Game {
-    //Random singleton
-    private static final Random RANDOM = new Random();
+    //Defaults for choosing the reveal engine, can be set with -Dminesweeper.reveal.mode and -Dminesweeper.reveal.threshold
+    private static final RevealMode DEFAULT_REVEAL_MODE =
+            RevealMode.valueOf(System.getProperty("minesweeper.reveal.mode", RevealMode.AUTO.name()));
+    private static final int DEFAULT_PARALLEL_THRESHOLD =
+            Integer.getInteger("minesweeper.reveal.threshold", 1_000_000);
+
+    //Metrics
+    private static final Histogram GENERATION = Metrics.histogram("game.generation", Histogram.NANOS);
+    private static final Histogram FLOOD_SIZE = Metrics.histogram("game.floodSize", Histogram.CELLS);
+    private static final Histogram BOARD_METRICS = Metrics.histogram("game.boardMetrics", Histogram.NANOS);
 
     public final int width;
     public final int height;
     //Flags left to place
     public int flags;
 
-    //Representation of Game grid
-    public final BaseTile[][] grid;
-
-    //List of Bombs
-    private final HashSet<Bomb> bombs = new HashSet<>();
+    //Running counters for constant time win detection
+    //amount of Bombs on the grid
+    private int bombs;
+    //amount of Flags placed on Bombs
+    private int flaggedBombs;
+    //amount of placed Flags
+    private int placedFlags;
+    //amount of Tiles without a Bomb that are not visible yet
+    private int hiddenTiles;
+
+    //Packed representation of Game grid
+    public final Board board;
+
+    //Reveal engines and their reused output buffer
+    private final FloodFill floodFill;
+    private ParallelFloodFill parallelFloodFill;
+    private final CellList revealed = new CellList();
+    //reused buffers of the tile update events
+    private final CellList changed = new CellList(1);
+    //reused buffer of the neighbours of a chorded Tile
+    private final int[] chordNeighbours = new int[8];
+    private final TileUpdate tileUpdate;
+
+    private RevealMode revealMode = DEFAULT_REVEAL_MODE;
+    //minimum amount of cells for the parallel reveal engine to be used in AUTO mode
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
 
     //GameState
     private GameState state = GameState.BLANK;
+    //seed the Bombs were placed with, empty if it isn't known
+    private OptionalLong seed = OptionalLong.empty();
+    //true if the Bombs were placed from a pooled layout with a known seed
+    private boolean pooled;
+    //difficulty metrics of the Bombs, computed on first use
+    private volatile BoardMetrics metrics;
 
 
-    //Listeners
-    private final LinkedList<Consumer<GameState>> stateChangeListeners = new LinkedList<>();
-    private final LinkedList<Consumer<Set<? extends BaseTile>>> tileUpdateListeners = new LinkedList<>();
+    //Listeners, may be added from other threads while events are fired
+    private final List<Consumer<GameState>> stateChangeListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<TileUpdate>> tileUpdateListeners = new CopyOnWriteArrayList<>();
 
     /**
      * Creates a game with the given width and height and randomly places the given amount of Bombs
@@ -37,12 +80,22 @@ public class Game {
      * @param bombs amount of Bombs to be placed
      */
     public Game(int width, int height, int bombs) {
-        this(width, height);
+        this(new Board(width, height), bombs);
+    }
 
-        if (bombs > width * height)
+    /**
+     * Creates a game on the given empty board, e.g. one with its cells mapped from a file
+     * @param board empty board
+     * @param bombs amount of Bombs to be placed
+     */
+    public Game(Board board, int bombs) {
+        this(board);
+
+        if (bombs > board.size())
             throw new IllegalArgumentException(bombs + " Bombs don't fit into a " + width + "*" + height + " grid!");
 
         this.flags = bombs;
+        this.bombs = bombs;
     }
 
     /**
@@ -51,288 +104,573 @@ public class Game {
      * @param height height of the game grid
      */
     public Game(int width, int height) {
-        this.width = width;
-        this.height = height;
-        grid = new BaseTile[width][height];
-
-        //Filling Board with empty tiles
-        for (int x = 0; x < grid.length; x++) {
-            for (int y = 0; y < grid[x].length; y++) {
-                grid[x][y] = new Tile(x, y);
-            }
-        }
+        this(new Board(width, height));
     }
 
-    public void randomize(int xFirstClick, int yFirstClick) {
-        randomize(flags, xFirstClick, yFirstClick);
+    private Game(Board board) {
+        this.width = board.width;
+        this.height = board.height;
+        this.board = board;
+        floodFill = new FloodFill(board);
+        tileUpdate = new TileUpdate(board);
     }
 
     /**
-     * Randomly places the given amount of Bombs onm the grid
-     * @param bombs amount of Bombs to be randomly placed
+     * Randomly places the Bombs with a new seed, keeping the first clicked Tile and its neighbours free
+     * @param xFirstClick x-coordinate of the first click
+     * @param yFirstClick y-coordinate of the first click
      */
-    private void randomize(int bombs, int xFirstClick, int yFirstClick) {
-        //variable tile -> Tile that was the first clicked
-        if (grid[xFirstClick][yFirstClick] instanceof Tile tile) {
-            //placing Bombs
-            while (bombs > 0) {
-                //Determining random x,y Coordinates in bounds of grid array
-                int x = RANDOM.nextInt(grid.length);
-                int y = RANDOM.nextInt(grid[x].length);
-
-                //no Bomb at the position of the Tile
-                if (x == tile.x && y == tile.y)
-                    continue;
+    public void randomize(int xFirstClick, int yFirstClick) {
+        //drawn from the thread's own generator, so games generated in parallel don't contend
+        randomize(xFirstClick, yFirstClick, ThreadLocalRandom.current().nextLong());
+    }
 
-                //trying to place the Bomb
-                Bomb b = setBomb(x, y);
+    /**
+     * Randomly places the Bombs, keeping the first clicked Tile and its neighbours free.
+     * The same seed, size, amount of Bombs and first click always result in the same grid
+     * @param xFirstClick x-coordinate of the first click
+     * @param yFirstClick y-coordinate of the first click
+     * @param seed seed of the generator
+     */
+    public void randomize(int xFirstClick, int yFirstClick, long seed) {
+        randomize(flags, xFirstClick, yFirstClick, new SplittableRandom(seed), OptionalLong.of(seed));
+    }
 
-                //placing the Bomb failed
-                if(b == null) {
-                    continue;
-                }
+    /**
+     * Randomly places the Bombs with the given generator, keeping the first clicked Tile and its neighbours free
+     * @param xFirstClick x-coordinate of the first click
+     * @param yFirstClick y-coordinate of the first click
+     * @param random source of randomness, used by the calling thread only
+     */
+    public void randomize(int xFirstClick, int yFirstClick, RandomGenerator random) {
+        randomize(flags, xFirstClick, yFirstClick, random, OptionalLong.empty());
+    }
 
-                //the just placed Bomb caused the count of the Tile to be not 0, so it gets removed
-                if (tile.getCount() != 0) {
-                    removeBomb(b);
-                    continue;
-                }
+    /**
+     * Randomly places the given amount of Bombs on the grid, keeping the first clicked Tile and its neighbours free
+     * @param bombs amount of Bombs to be randomly placed
+     * @param xFirstClick x-coordinate of the first click
+     * @param yFirstClick y-coordinate of the first click
+     * @param random source of randomness
+     * @param seed seed of the generator if known
+     */
+    private void randomize(int bombs, int xFirstClick, int yFirstClick, RandomGenerator random, OptionalLong seed) {
+        if (state != GameState.BLANK)
+            throw new IllegalStateException("Game Grid should be blank");
+
+        RandomizeEvent event = new RandomizeEvent();
+        event.begin();
+        long start = Metrics.now();
+        BoardGenerator.placeMines(board, bombs, xFirstClick, yFirstClick, random);
+        countTiles();
+        this.seed = seed;
+        GENERATION.recordSince(start);
+        commit(event, false);
+        changeState(GameState.OK);
+    }
 
+    /**
+     * Places Bombs at the given cell indices instead of randomly, e.g. from a pre-generated layout
+     * @param bombs indices of the cells to place Bombs on
+     */
+    public void placeBombs(int[] bombs) {
+        placeBombs(bombs, OptionalLong.empty());
+    }
 
-                bombs--;
+    /**
+     * Places Bombs at the given cell indices that were generated from the given seed
+     * @param bombs indices of the cells to place Bombs on
+     * @param seed seed the positions were generated from if known
+     */
+    void placeBombs(int[] bombs, OptionalLong seed) {
+        if (state != GameState.BLANK)
+            throw new IllegalStateException("Game Grid should be blank");
+
+        RandomizeEvent event = new RandomizeEvent();
+        event.begin();
+        for (int i : bombs)
+            board.setMine(i, true);
+        board.computeCounts();
+        countTiles();
+        flags = this.bombs - placedFlags;
+        this.seed = seed;
+        this.pooled = seed.isPresent();
+        commit(event, true);
+        changeState(GameState.OK);
+    }
 
-            }
-            changeState(GameState.OK);
-        } else throw new IllegalStateException("Game Grid should be blank");
+    /**
+     * Takes over the Bombs, visible Tiles and Flags already set on the board, e.g. by loading a saved game.
+     * No events are fired
+     * @param state the state of the restored game
+     * @param flags Flags left to place
+     */
+    void restore(GameState state, int flags) {
+        if (this.state != GameState.BLANK)
+            throw new IllegalStateException("Game Grid should be blank");
 
+        if (state != GameState.BLANK) {
+            board.computeCounts();
+            countTiles();
+        }
+        this.flags = flags;
+        this.state = state;
+    }
 
+    private void commit(RandomizeEvent event, boolean pooled) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setBoard(width, height);
+            event.bombs = bombs;
+            event.pooled = pooled;
+            event.commit();
+        }
     }
 
     /**
-     * Places a Bomb on the given coordinates, returning the spawned Bomb
-     * @param x x-coordinate
-     * @param y y-coordinate
-     * @return the Bomb if it was placed, otherwise null
+     * Initializes the running counters from the current grid
      */
-    private Bomb setBomb(int x, int y) {
-        if (grid[x][y] instanceof Bomb)
-            //at the given coordinates is already a Bomb
-            return null;
-
-        Bomb b = new Bomb(x, y);
-        bombs.add(b);
-        grid[x][y] = b;
-        b.evaluateCounts(grid);
-
-        return b;
+    private void countTiles() {
+        bombs = 0;
+        flaggedBombs = 0;
+        placedFlags = 0;
+        hiddenTiles = 0;
+        for (int i = 0; i < board.size(); i++) {
+            boolean bomb = board.isMine(i);
+            boolean flag = board.hasFlag(i);
+            if (bomb) bombs++;
+            if (flag) placedFlags++;
+            if (bomb && flag) flaggedBombs++;
+            if (!bomb && !board.isVisible(i)) hiddenTiles++;
+        }
     }
 
     /**
-     * Removes the given Bomb from the game
-     * @param bomb the Bomb to be removed
+     * Places a Bomb on the given coordinates
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @return true if the Bomb was placed, false if there already was one
      */
-    private void removeBomb(Bomb bomb) {
-        bombs.remove(bomb);
-        Tile tile = new Tile(bomb.x, bomb.y);
-        grid[bomb.x][bomb.y] = tile;
-        tile.evaluateCounts(grid);
+    private boolean setBomb(int x, int y) {
+        return board.placeMine(index(x, y));
     }
 
     /**
      * Spawns a Bomb on the given coordinates and updating the amount of Bombs to find to win the game
      * @param x x-coordinate
      * @param y y-coordinate
+     * @throws IndexOutOfBoundsException if the coordinates are outside the grid
      */
     public void spawnBomb(int x, int y) {
-        if(setBomb(x, y) != null)
-            flags++;
+        if(!setBomb(x, y))
+            return;
+        int i = index(x, y);
+        flags++;
+        bombs++;
+        metrics = null;
+        if (board.hasFlag(i))
+            flaggedBombs++;
+        if (!board.isVisible(i))
+            hiddenTiles--;
     }
 
     /**
      * Sets / removes a flag at the given coordinates
      * @param x x-coordinate
      * @param y y-coordinate
+     * @throws IndexOutOfBoundsException if the coordinates are outside the grid
      */
     public void toggleFlag(int x, int y) {
-        BaseTile tile = grid[x][y];
-        if (tile.isVisible)
+        int i = index(x, y);
+        if (board.isVisible(i))
             return;
 
-        if (tile.hasFlag) {
-            tile.hasFlag = false;
-            flags++;
-        } else {
-            tile.hasFlag = true;
-            flags--;
-        }
+        FlagEvent event = new FlagEvent();
+        event.begin();
+        int change = board.hasFlag(i) ? -1 : 1;
+        board.setFlag(i, change > 0);
+        flags -= change;
+        placedFlags += change;
+        if (board.isMine(i))
+            flaggedBombs += change;
+
         checkWin();
-        tileUpdate(Set.of(tile));
+        changed.clear();
+        changed.add(i);
+        tileUpdate(TileUpdate.Kind.FLAG, changed);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setBoard(width, height);
+            event.x = x;
+            event.y = y;
+            event.flagged = change > 0;
+            event.commit();
+        }
 
     }
 
 
     /**
-     * Checks if the game is won
+     * Checks if the game is won, either by revealing every Tile without a Bomb
+     * or by placing exactly one Flag on every Bomb
      */
     private void checkWin() {
-        //used the correct amount of flags
-        if (flags != 0)
+        if (state != GameState.OK)
             return;
 
-        //all Bombs have a Flag
-        if (!bombs.stream().allMatch(bomb -> bomb.hasFlag))
+        //every Bomb has a Flag and no Flag is misplaced
+        boolean allFlagged = flags == 0 && flaggedBombs == bombs && placedFlags == bombs;
+        if (hiddenTiles != 0 && !allFlagged)
             return;
 
-        //revealing all invisible tiles and adding them to a Set for firing a Tile Update
-        Set<BaseTile> tiles = new HashSet<>();
-        for (var row : grid)
-            for (var tile : row) {
-                if (tile instanceof Tile) {
-                    if (tile.isVisible)
-                        continue;
-                    tiles.add(tile);
-                    tile.isVisible = true;
-                }
+        GameEndEvent event = new GameEndEvent();
+        event.begin();
+        int revealedTiles = hiddenTiles;
+        if (hiddenTiles != 0) {
+            //revealing all invisible tiles and collecting them for firing a Tile Update
+            revealed.clear();
+            for (int i = 0; i < board.size(); i++) {
+                if (board.isMine(i) || board.isVisible(i))
+                    continue;
+                board.setVisible(i, true);
+                revealed.add(i);
             }
+            hiddenTiles = 0;
 
-        tileUpdate(tiles);
+            tileUpdate(TileUpdate.Kind.WIN, revealed);
+        }
         changeState(GameState.WIN);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setBoard(width, height);
+            event.won = true;
+            event.cellsRevealed = revealedTiles;
+            event.commit();
+        }
     }
 
     /**
      * Searches the Tile at the given coordinates
      * @param x x-coordinate
      * @param y y-coordinate
+     * @throws IndexOutOfBoundsException if the coordinates are outside the grid
      */
     public void search(int x, int y) {
-        BaseTile tile = grid[x][y];
-        if (tile instanceof Bomb) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int hidden = hiddenTiles;
+
+        boolean lost = board.isMine(index(x, y));
+        if (lost) {
             //searching a Bomb -> lose
             lose();
         } else {
-            if (!(tile instanceof Tile)) {
-                //this should never happen
-                return;
-            }
             //searching
             floodSearch(x, y);
         }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setBoard(width, height);
+            event.x = x;
+            event.y = y;
+            event.cellsRevealed = lost ? 0 : hidden - hiddenTiles;
+            event.parallel = useParallelReveal();
+            event.lost = lost;
+            event.commit();
+        }
     }
 
 
+    /**
+     * Reveals the unflagged neighbours of the visible Tile at the given coordinates if the amount of Flags around it
+     * equals its count. If one of them is a Bomb, because a Flag is misplaced, the game is lost.
+     * Nothing happens if the Tile is hidden, has no count or the Flags around it don't match its count
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @throws IndexOutOfBoundsException if the coordinates are outside the grid
+     */
+    public void chord(int x, int y) {
+        int i = index(x, y);
+        int count = board.getCount(i);
+        if (state != GameState.OK || !board.isVisible(i) || board.isMine(i) || count == 0)
+            return;
+
+        //the Flags are counted on demand, that's at most 8 reads per chord
+        int n = board.neighbours(i, chordNeighbours);
+        int flagged = 0;
+        for (int k = 0; k < n; k++) {
+            if (board.hasFlag(chordNeighbours[k]))
+                flagged++;
+        }
+        if (flagged != count)
+            return;
+
+        ChordEvent event = new ChordEvent();
+        event.begin();
+        int hidden = hiddenTiles;
+
+        boolean lost = false;
+        for (int k = 0; k < n; k++) {
+            int c = chordNeighbours[k];
+            if (board.isMine(c) && !board.hasFlag(c))
+                lost = true;
+        }
+        if (lost) {
+            //an unflagged Bomb is revealed -> lose
+            lose();
+        } else {
+            //all neighbours are revealed in a single batch
+            revealed.clear();
+            int removedFlags = 0;
+            for (int k = 0; k < n; k++) {
+                int c = chordNeighbours[k];
+                if (!board.hasFlag(c))
+                    removedFlags += flood(c);
+            }
+            revealed(removedFlags);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setBoard(width, height);
+            event.x = x;
+            event.y = y;
+            event.cellsRevealed = lost ? 0 : hidden - hiddenTiles;
+            event.lost = lost;
+            event.commit();
+        }
+    }
+
+    /**
+     * Converts coordinates to the index of the cell, as {@link Board#index(int, int)} would silently wrap
+     * coordinates outside the grid into another row
+     * @throws IndexOutOfBoundsException if the coordinates are outside the grid
+     */
+    int index(int x, int y) {
+        if (!board.inBounds(x, y))
+            throw new IndexOutOfBoundsException("Tile " + x + "," + y + " is outside the " + width + "*" + height
+                    + " grid");
+        return board.index(x, y);
+    }
+
     /**
      * Initiates flood-search (revealing Tiles with flood-fill algorithm) at the given coordinates
      * @param x x-coordinate
      * @param y y-coordinate
      */
     private void floodSearch(int x, int y) {
-        HashSet<BaseTile> traversedTiles = new HashSet<>();
-        floodSearch(x, y, traversedTiles);
-
-        tileUpdate(traversedTiles);
+        revealed.clear();
+        revealed(flood(board.index(x, y)));
     }
 
     /**
-     * Recursive flood-search algorithm
-     * @param x x-coordinate of current Tile
-     * @param y y-coordinate of current Tile
-     * @param traversedTiles List containing all traversed Tiles
+     * Reveals the cell at the given index and its connected cells with the reveal engine, appending them to revealed
+     * @return amount of Flags that were removed from revealed cells
      */
-    private void floodSearch(int x, int y, Set<BaseTile> traversedTiles) {
-        if (!(grid[x][y] instanceof Tile tile))
-            return;
+    private int flood(int start) {
+        return useParallelReveal()
+                ? parallelFloodFill().reveal(start, revealed)
+                : floodFill.reveal(start, revealed);
+    }
 
-        //tile is visible or was already traversed -> no further processing
-        if (tile.isVisible || traversedTiles.contains(tile))
+    /**
+     * Updates the running counters after the cells in revealed were revealed and fires a single Tile Update
+     * @param removedFlags amount of Flags that were removed from revealed cells
+     */
+    private void revealed(int removedFlags) {
+        if (revealed.isEmpty())
             return;
+        FLOOD_SIZE.record(revealed.size());
 
-        //revealing process
-        if (tile.hasFlag) {
-            //remove the Tiles Flag if it has one
-            toggleFlag(tile.x, tile.y);
-        }
-        tile.isVisible = true;
-        traversedTiles.add(tile);
+        //Flags on revealed Tiles are given back
+        flags += removedFlags;
+        placedFlags -= removedFlags;
+        hiddenTiles -= revealed.size();
 
-        //only if count == 0 new searches are started
-        if (tile.getCount() != 0)
-            return;
+        tileUpdate(TileUpdate.Kind.REVEAL, revealed);
 
-        //recursive calls
+        //revealing the last Tile without a Bomb wins the game
+        checkWin();
+    }
 
-        //left, right
-        floodSearch(Math.max(0, x-1), y, traversedTiles);
-        floodSearch(Math.min(width-1, x+1), y, traversedTiles);
-        //up, down
-        floodSearch(x, Math.max(0, y-1), traversedTiles);
-        floodSearch(x, Math.min(height-1, y+1), traversedTiles);
+    private boolean useParallelReveal() {
+        return switch (revealMode) {
+            case SEQUENTIAL -> false;
+            case PARALLEL -> true;
+            case AUTO -> board.size() >= parallelThreshold;
+        };
+    }
 
-        floodSearch(Math.max(0, x-1), Math.min(height-1, y+1), traversedTiles); //tl
-        floodSearch(Math.min(width-1, x+1), Math.min(height-1, y+1), traversedTiles); //tr
-        floodSearch(Math.max(0, x-1), Math.max(0, y-1), traversedTiles); //bl
-        floodSearch(Math.min(width-1, x+1), Math.max(0, y-1), traversedTiles); //br
+    private ParallelFloodFill parallelFloodFill() {
+        if (parallelFloodFill == null)
+            parallelFloodFill = new ParallelFloodFill(board);
+        return parallelFloodFill;
     }
 
     /**
      * Executed when the game is lost (searching a Bomb)
      */
     private void lose() {
+        GameEndEvent event = new GameEndEvent();
+        event.begin();
+
         //revealing all Bombs
-        for (var bomb : bombs)
-            bomb.isVisible = true;
-        tileUpdate(bombs);
+        revealed.clear();
+        for (int i = 0; i < board.size(); i++) {
+            if (!board.isMine(i))
+                continue;
+            board.setVisible(i, true);
+            revealed.add(i);
+        }
+        tileUpdate(TileUpdate.Kind.LOSE, revealed);
         changeState(GameState.LOSE);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setBoard(width, height);
+            event.won = false;
+            event.cellsRevealed = revealed.size();
+            event.commit();
+        }
     }
 
     /**
      * Returns the BaseTile at the given coordinates
      * @param x x-coordinate
      * @param y y-coordinate
-     * @return the BaseTile at the given coordinates if they're in bounds of the internal grid, otherwise null
+     * @return a view of the Tile at the given coordinates if they're in bounds of the internal grid, otherwise null
      */
     public BaseTile getTileAt(int x, int y) {
-        if (x >= width || y >= height)
+        if (!board.inBounds(x, y))
             return null;
-        return grid[x][y];
+        return BaseTile.of(board, x, y);
     }
 
     public GameState getState() {
         return state;
     }
 
+    /**
+     * @return the seed the Bombs were placed with, empty if the game is blank or the seed isn't known
+     */
+    public OptionalLong getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the difficulty metrics of the placed Bombs, computed in a linear pass on the first call.
+     * The pass takes tens of milliseconds per million cells, so it is neither run when the Bombs are placed nor
+     * should the first call happen on the game loop thread or the EDT for large grids.
+     * The metrics only depend on the Bombs and counts, which stay the same while the game is played, so any thread
+     * that has seen the Bombs placed may call this while the game goes on, e.g. after the state changed to OK
+     * @return the metrics or null if the game is blank
+     */
+    public BoardMetrics getMetrics() {
+        if (state == GameState.BLANK)
+            return null;
+        BoardMetrics metrics = this.metrics;
+        if (metrics == null) {
+            //threads calling this at the same time compute the same metrics
+            long start = Metrics.now();
+            metrics = BoardMetrics.of(board);
+            BOARD_METRICS.recordSince(start);
+            this.metrics = metrics;
+        }
+        return metrics;
+    }
+
+    /**
+     * @return true if the Bombs were placed by {@link BoardPool#layout(int, int, int, long, int, int)} from the seed
+     */
+    boolean isPooled() {
+        return pooled;
+    }
+
+    public int getBombs() {
+        return bombs;
+    }
+
+    public int getPlacedFlags() {
+        return placedFlags;
+    }
+
+    /**
+     * @return amount of Tiles without a Bomb that still have to be revealed
+     */
+    public int getHiddenTiles() {
+        return hiddenTiles;
+    }
+
+    public RevealMode getRevealMode() {
+        return revealMode;
+    }
+
+    /**
+     * Sets which reveal engine is used by {@link #search(int, int)}
+     * @param revealMode the RevealMode to use
+     */
+    public void setRevealMode(RevealMode revealMode) {
+        this.revealMode = Objects.requireNonNull(revealMode);
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the minimum amount of cells a board must have for the parallel reveal engine to be used in
+     * {@link RevealMode#AUTO}
+     * @param parallelThreshold minimum amount of cells
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
     //Listener adding
 
     public void addStateChangeListener(Consumer<GameState> c) {
         stateChangeListeners.add(c);
     }
 
-    public void addTileUpdateListener(Consumer<Set<? extends BaseTile>> consumer) {
+    /**
+     * Adds a listener notified with the changed cells after every action. The passed {@link TileUpdate} is reused,
+     * so it must not be kept after the call
+     * @param consumer the listener
+     */
+    public void addTileUpdateListener(Consumer<TileUpdate> consumer) {
         tileUpdateListeners.add(consumer);
     }
 
+    public void removeTileUpdateListener(Consumer<TileUpdate> consumer) {
+        tileUpdateListeners.remove(consumer);
+    }
+
     //firing Events
     private void changeState(GameState newState) {
         state = newState;
         stateChangeListeners.forEach(gameStateConsumer -> gameStateConsumer.accept(newState));
     }
 
-    private void tileUpdate(Set<? extends BaseTile> tiles) {
-        tileUpdateListeners.forEach(consumer -> consumer.accept(tiles));
+    private void tileUpdate(TileUpdate.Kind kind, CellList cells) {
+        //the bounding rectangle is only computed if someone is listening
+        if (tileUpdateListeners.isEmpty() || cells.isEmpty())
+            return;
+        tileUpdate.set(kind, cells);
+        for (Consumer<TileUpdate> consumer : tileUpdateListeners)
+            consumer.accept(tileUpdate);
     }
 
     @Override
     public String toString() {
-        StringBuilder s = new StringBuilder();
-        for (var v : grid) {
-            s.append(Arrays.toString(v));
-        }
-
         return "Game{" +
                 "width=" + width +
                 ", height=" + height +
                 ", flags=" + flags +
                 ", state=" + state +
-                ", grid=" + s +
+                ", grid=\n" + board +
                 '}';
     }
 
@@ -342,4 +680,16 @@ public class Game {
         WIN,
         LOSE
     }
+
+    /**
+     * Selection of the engine used for revealing Tiles
+     */
+    public enum RevealMode {
+        //always single-threaded
+        SEQUENTIAL,
+        //always fork-join
+        PARALLEL,
+        //fork-join for boards with at least parallelThreshold cells
+        AUTO
+    }
 }
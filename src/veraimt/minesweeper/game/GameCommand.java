@@ -0,0 +1,36 @@
+package veraimt.minesweeper.game;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Actions applied to a {@link Game} by its {@link GameLoop}
+ */
+public sealed interface GameCommand {
+
+    /**
+     * Searches the Tile at the given coordinates, the first search or flag of a blank game places the Bombs
+     */
+    record Search(int x, int y) implements GameCommand {
+    }
+
+    /**
+     * Sets / removes a Flag at the given coordinates
+     */
+    record Flag(int x, int y) implements GameCommand {
+    }
+
+    /**
+     * Reveals the unflagged neighbours of the visible Tile at the given coordinates, see {@link Game#chord(int, int)}
+     */
+    record Chord(int x, int y) implements GameCommand {
+    }
+
+    /**
+     * Creates the next game after all previously submitted commands were applied
+     * @param next creates the next game, called on the loop thread
+     * @param then receives the next game, called on the loop thread
+     */
+    record Restart(Supplier<Game> next, Consumer<Game> then) implements GameCommand {
+    }
+}
@@ -0,0 +1,255 @@
+package veraimt.minesweeper.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only log of the actions applied to games, replayed with {@link JournalReplay}.
+ * <p>
+ * After a 5 byte header ("MSWJ" and the version) the journal is a sequence of records. Every record is a tag byte,
+ * the time since the previous record in microseconds and the payload of the tag. All numbers are unsigned varints
+ * (7 bits per byte, least significant group first), the indices of cell lists are stored as the difference
+ * to the previous index:
+ * <pre>
+ * GAME     width, height, Bombs       a new blank game, the following records belong to it
+ * SEED     seed, index, pooled        the Bombs placed on the first click at the cell, from the seed by
+ *                                     {@link Game#randomize(int, int, long)} or a {@link BoardPool} layout (pooled 1)
+ * MINES    count, indices             the Bombs placed on the first click, if their seed isn't known
+ * RESTORE  state, Flags left, count and indices of the mines, visible cells and flagged cells
+ *                                     a game that was already running, e.g. loaded from a {@link GameSnapshot}
+ * SEARCH   index                      a search of the cell
+ * FLAG     index                      a Flag set or removed on the cell
+ * CHORD    index                      a chord on the cell, see {@link Game#chord(int, int)}
+ * </pre>
+ * Records are buffered until {@link #flush()}. A journal may be shared by several game loops, so all methods are
+ * synchronized. Write errors don't stop the game, the journal is disabled instead and the error is kept
+ */
+public class GameJournal implements Closeable {
+    private static final Logger LOG = Logger.getLogger(GameJournal.class.getName());
+
+    //file actions are journaled to, set with -Dminesweeper.journal.file
+    public static final String FILE = System.getProperty("minesweeper.journal.file");
+
+    static final int MAGIC = 'M' | 'S' << 8 | 'W' << 16 | 'J' << 24;
+    static final int VERSION = 1;
+
+    //Record tags
+    static final int GAME = 1;
+    static final int MINES = 2;
+    static final int RESTORE = 3;
+    static final int SEARCH = 4;
+    static final int FLAG = 5;
+    static final int SEED = 6;
+    static final int CHORD = 7;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[8192];
+    private int position;
+
+    //time of the previous record from System.nanoTime()
+    private long last = System.nanoTime();
+    private long records;
+    private IOException error;
+
+    /**
+     * Creates a journal writing to the given stream, starting with the header
+     * @param out stream the records are written to
+     */
+    public GameJournal(OutputStream out) {
+        this(out, true);
+    }
+
+    private GameJournal(OutputStream out, boolean header) {
+        this.out = out;
+        if (header) {
+            for (int shift = 0; shift < 32; shift += 8)
+                put(MAGIC >>> shift);
+            put(VERSION);
+        }
+    }
+
+    /**
+     * Opens a journal appending to the given file, the header is only written to new files
+     * @param file file the records are appended to
+     * @return the opened journal
+     * @throws IOException if the file can't be opened
+     */
+    public static GameJournal open(Path file) throws IOException {
+        boolean header = !Files.exists(file) || Files.size(file) == 0;
+        return new GameJournal(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND),
+                header);
+    }
+
+    /**
+     * Opens the journal configured with -Dminesweeper.journal.file
+     * @return the opened journal or null if no file is configured
+     * @throws IOException if the file can't be opened
+     */
+    public static GameJournal openConfigured() throws IOException {
+        return FILE == null ? null : open(Path.of(FILE));
+    }
+
+    /**
+     * Starts journaling the given game, games that are already running are written with their whole grid
+     * @param game the game whose actions follow
+     */
+    public synchronized void begin(Game game) {
+        record(GAME);
+        putVarint(game.width);
+        putVarint(game.height);
+        putVarint(game.getBombs());
+
+        if (game.getState() == Game.GameState.BLANK)
+            return;
+        record(RESTORE);
+        putVarint(game.getState().ordinal());
+        putVarint(game.flags);
+        putCells(game.board, Board.MINE);
+        putCells(game.board, Board.VISIBLE);
+        putCells(game.board, Board.FLAG);
+    }
+
+    /**
+     * Journals the Bombs placed on the first click, only their seed if it is known
+     * @param game game with the placed Bombs
+     * @param firstClick index of the first clicked cell
+     */
+    public synchronized void placed(Game game, int firstClick) {
+        if (game.getSeed().isEmpty()) {
+            record(MINES);
+            putCells(game.board, Board.MINE);
+            return;
+        }
+        record(SEED);
+        putVarint(game.getSeed().getAsLong());
+        putVarint(firstClick);
+        put(game.isPooled() ? 1 : 0);
+    }
+
+    /**
+     * Journals a search of the given cell
+     * @param index index of the cell
+     */
+    public synchronized void search(int index) {
+        record(SEARCH);
+        putVarint(index);
+    }
+
+    /**
+     * Journals a Flag set or removed on the given cell
+     * @param index index of the cell
+     */
+    public synchronized void flag(int index) {
+        record(FLAG);
+        putVarint(index);
+    }
+
+    /**
+     * Journals a chord on the given cell
+     * @param index index of the cell
+     */
+    public synchronized void chord(int index) {
+        record(CHORD);
+        putVarint(index);
+    }
+
+    /**
+     * Writes the buffered records to the underlying stream
+     */
+    public synchronized void flush() {
+        writeBuffer();
+        if (error != null)
+            return;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        out.close();
+        if (error != null)
+            throw error;
+    }
+
+    /**
+     * @return amount of records written since the journal was opened
+     */
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    /**
+     * @return the error that disabled the journal or null
+     */
+    public synchronized IOException getError() {
+        return error;
+    }
+
+    private void record(int tag) {
+        long now = System.nanoTime();
+        put(tag);
+        putVarint((now - last) / 1000);
+        last = now;
+        records++;
+    }
+
+    /**
+     * Writes the amount and the indices of the cells with the given bit
+     */
+    private void putCells(Board board, int bit) {
+        int count = 0;
+        for (int i = 0; i < board.size(); i++) {
+            if ((board.get(i) & bit) != 0)
+                count++;
+        }
+        putVarint(count);
+
+        int previous = 0;
+        for (int i = 0; i < board.size(); i++) {
+            if ((board.get(i) & bit) == 0)
+                continue;
+            putVarint(i - previous);
+            previous = i;
+        }
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            put((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        put((int) value);
+    }
+
+    private void put(int b) {
+        if (position == buffer.length)
+            writeBuffer();
+        buffer[position++] = (byte) b;
+    }
+
+    private void writeBuffer() {
+        if (error == null && position > 0) {
+            try {
+                out.write(buffer, 0, position);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        position = 0;
+    }
+
+    private void fail(IOException e) {
+        error = e;
+        LOG.log(Level.WARNING, "Journal disabled after a write error", e);
+    }
+}
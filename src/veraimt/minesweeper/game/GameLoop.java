@@ -0,0 +1,337 @@
+package veraimt.minesweeper.game;
+
+import veraimt.minesweeper.metrics.Histogram;
+import veraimt.minesweeper.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Single thread owning a {@link Game}.
+ * Commands from the UI are put into a bounded queue and applied one after another in the order they were submitted,
+ * so the game is never modified by two threads at once.
+ * <p>
+ * Placers generating the Bombs on another thread (see {@link BombPlacer#generate(int, int, int, int, int)}) don't
+ * block the loop: the first click and all commands after it are kept until the Bombs are placed
+ */
+public class GameLoop {
+    private static final Logger LOG = Logger.getLogger(GameLoop.class.getName());
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    //time from submitting a command until it was applied
+    private static final Histogram CLICK_TO_APPLY = Metrics.histogram("loop.clickToApply", Histogram.NANOS);
+    //queued when the Bombs generated on another thread are ready
+    private static final Queued GENERATED = new Queued(null, 0);
+
+    private final Game game;
+    //places the Bombs on the first click, may be null
+    private final BombPlacer placer;
+    //records the applied commands, may be null
+    private final GameJournal journal;
+
+    private final BlockingQueue<Queued> queue;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    //Bombs being generated for the first click and the commands waiting for them, only used by the loop thread
+    private CompletableFuture<int[]> generation;
+    private int firstClick;
+    private final List<Queued> deferred = new ArrayList<>();
+
+    //called on the loop thread after every applied command
+    private final Consumer<GameCommand> appliedListener;
+
+    //Statistics
+    private final AtomicLong rejected = new AtomicLong();
+    private final Map<Class<? extends GameCommand>, ServiceTime> serviceTimes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates and starts a loop for the given game
+     * @param game game owned by the loop
+     * @param placer places the Bombs on the first click, may be null for {@link Game#randomize(int, int)}
+     * @param appliedListener called on the loop thread after every applied command
+     */
+    public GameLoop(Game game, BombPlacer placer, Consumer<GameCommand> appliedListener) {
+        this(game, placer, null, appliedListener, DEFAULT_CAPACITY);
+    }
+
+    public GameLoop(Game game, BombPlacer placer, Consumer<GameCommand> appliedListener, int capacity) {
+        this(game, placer, null, appliedListener, capacity);
+    }
+
+    /**
+     * Creates and starts a loop for the given game, recording every applied command in the given journal
+     * @param game game owned by the loop
+     * @param placer places the Bombs on the first click, may be null for {@link Game#randomize(int, int)}
+     * @param journal journal the game and its commands are written to, may be null
+     * @param appliedListener called on the loop thread after every applied command
+     */
+    public GameLoop(Game game, BombPlacer placer, GameJournal journal, Consumer<GameCommand> appliedListener) {
+        this(game, placer, journal, appliedListener, DEFAULT_CAPACITY);
+    }
+
+    public GameLoop(Game game, BombPlacer placer, GameJournal journal, Consumer<GameCommand> appliedListener,
+                    int capacity) {
+        this.game = game;
+        this.placer = placer;
+        this.journal = journal;
+        this.appliedListener = appliedListener;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        thread = new Thread(this::run, "GameLoop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues the given command
+     * @param command command to be applied
+     * @return false if the queue is full and the command was dropped
+     */
+    public boolean submit(GameCommand command) {
+        if (queue.offer(new Queued(command, Metrics.now())))
+            return true;
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Stops the loop, commands still queued are discarded
+     */
+    public void shutdown() {
+        running = false;
+        thread.interrupt();
+    }
+
+    /**
+     * Waits for the loop thread to stop after {@link #shutdown()}
+     * @param millis maximum time to wait in milliseconds
+     * @return true if the loop thread has stopped
+     */
+    public boolean awaitTermination(long millis) throws InterruptedException {
+        thread.join(millis);
+        return !thread.isAlive();
+    }
+
+    private void run() {
+        if (journal != null)
+            journal.begin(game);
+
+        while (running) {
+            Queued queued;
+            try {
+                queued = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (queued == GENERATED)
+                placeGenerated();
+            else
+                process(queued);
+        }
+    }
+
+    private void process(Queued queued) {
+        GameCommand command = queued.command;
+        //a new game doesn't have to wait for the Bombs of this one
+        boolean waiting = generation != null;
+        if (waiting && !(command instanceof GameCommand.Restart)) {
+            deferred.add(queued);
+            return;
+        }
+
+        long time = System.nanoTime();
+        try {
+            apply(command);
+        } catch (RuntimeException e) {
+            //a failing command must not stop the loop
+            LOG.log(Level.SEVERE, "Command " + command + " failed", e);
+        }
+        if (!waiting && generation != null) {
+            //the command started the generation, it is applied again once the Bombs are placed
+            deferred.add(queued);
+            return;
+        }
+        serviceTimes.computeIfAbsent(command.getClass(), c -> new ServiceTime())
+                .record(System.nanoTime() - time);
+        CLICK_TO_APPLY.recordSince(queued.submitted);
+
+        //the journal is written once the queue is drained, so bursts of clicks are written together
+        if (journal != null && queue.isEmpty())
+            journal.flush();
+        if (appliedListener != null)
+            appliedListener.accept(command);
+    }
+
+    /**
+     * Places the Bombs generated on another thread and applies the commands that waited for them
+     */
+    private void placeGenerated() {
+        int[] bombs = null;
+        try {
+            bombs = generation.join();
+        } catch (CompletionException e) {
+            LOG.log(Level.WARNING, "Bombs couldn't be generated, placing random Bombs", e.getCause());
+        }
+        generation = null;
+
+        if (game.getState() == Game.GameState.BLANK) {
+            if (bombs != null)
+                game.placeBombs(bombs);
+            else
+                game.randomize(game.board.xOf(firstClick), game.board.yOf(firstClick));
+            if (journal != null && game.getState() == Game.GameState.OK)
+                journal.placed(game, firstClick);
+        }
+
+        List<Queued> waiting = new ArrayList<>(deferred);
+        deferred.clear();
+        for (Queued queued : waiting)
+            process(queued);
+    }
+
+    private void apply(GameCommand command) {
+        if (command instanceof GameCommand.Search search) {
+            if (start(search.x(), search.y())) {
+                game.search(search.x(), search.y());
+                if (journal != null)
+                    journal.search(game.board.index(search.x(), search.y()));
+            }
+        } else if (command instanceof GameCommand.Flag flag) {
+            if (start(flag.x(), flag.y())) {
+                game.toggleFlag(flag.x(), flag.y());
+                if (journal != null)
+                    journal.flag(game.board.index(flag.x(), flag.y()));
+            }
+        } else if (command instanceof GameCommand.Chord chord) {
+            //chording needs a revealed Tile, so it never starts a game
+            if (game.getState() == Game.GameState.OK) {
+                game.chord(chord.x(), chord.y());
+                if (journal != null)
+                    journal.chord(game.board.index(chord.x(), chord.y()));
+            }
+        } else if (command instanceof GameCommand.Restart restart) {
+            restart.then().accept(restart.next().get());
+        }
+    }
+
+    /**
+     * Places the Bombs if the game is blank
+     * @return true if the game is running
+     * @throws IndexOutOfBoundsException if the coordinates are outside the grid
+     */
+    private boolean start(int x, int y) {
+        //a click outside the grid must not place the Bombs
+        int index = game.index(x, y);
+        if (game.getState() == Game.GameState.BLANK) {
+            //game grid is blank, so the first click randomizes it
+            CompletableFuture<int[]> future = placer == null ? null
+                    : placer.generate(game.width, game.height, game.getBombs(), x, y);
+            if (future != null) {
+                generation = future;
+                firstClick = index;
+                //never on the loop thread, which might wait for room in its own queue otherwise
+                future.whenCompleteAsync((bombs, error) -> {
+                    try {
+                        //nothing waits for the Bombs after the loop stopped
+                        while (running) {
+                            if (queue.offer(GENERATED, 100, TimeUnit.MILLISECONDS))
+                                return;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return false;
+            }
+            if (placer != null)
+                placer.place(game, x, y);
+            else
+                game.randomize(x, y);
+            if (journal != null && game.getState() == Game.GameState.OK)
+                journal.placed(game, index);
+        }
+        return game.getState() == Game.GameState.OK;
+    }
+
+    //Statistics
+
+    /**
+     * @return amount of commands waiting to be applied
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return amount of commands dropped because the queue was full
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Returns the service times of the given type of command
+     * @param type class of the command
+     * @return the service times or null if no such command was applied yet
+     */
+    public ServiceTime getServiceTime(Class<? extends GameCommand> type) {
+        return serviceTimes.get(type);
+    }
+
+    /**
+     * Command waiting in the queue
+     * @param submitted time of the submission from {@link Metrics#now()}
+     */
+    private record Queued(GameCommand command, long submitted) {
+    }
+
+    /**
+     * Time spent applying commands of one type, only written by the loop thread
+     */
+    public static class ServiceTime {
+        private volatile long count;
+        private volatile long totalNanos;
+        private volatile long maxNanos;
+
+        private void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanNanos() {
+            long c = count;
+            return c == 0 ? 0 : (double) totalNanos / c;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "ServiceTime{" +
+                    "count=" + count +
+                    ", mean=" + getMeanNanos() / 1e3 + "us" +
+                    ", max=" + maxNanos / 1e3 + "us" +
+                    '}';
+        }
+    }
+}
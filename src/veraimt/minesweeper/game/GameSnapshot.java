@@ -0,0 +1,237 @@
+package veraimt.minesweeper.game;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntFunction;
+
+/**
+ * Versioned binary save format of a {@link Game}.
+ * <p>
+ * Layout, all numbers little-endian:
+ * <pre>
+ * offset size
+ *      0    4  magic "MSWP"
+ *      4    2  version
+ *      6    2  reserved
+ *      8    4  width
+ *     12    4  height
+ *     16    4  Bombs
+ *     20    4  Flags left to place
+ *     24    4  GameState ordinal
+ *     28    4  reserved
+ *     32    8  elapsed time in milliseconds
+ *     40       mine plane, visible plane, flag plane
+ * </pre>
+ * Each plane stores one bit per cell, cell i in bit i % 64 of the i / 64-th long, so a 10M cell board takes
+ * less than 4 MB. The planes are streamed through a small buffer when saving and loading, so only the board itself
+ * takes up memory
+ */
+public final class GameSnapshot {
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 'M' | 'S' << 8 | 'W' << 16 | 'P' << 24;
+    private static final int HEADER_SIZE = 40;
+    //size of the buffer the planes are written and read through
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private GameSnapshot() {
+    }
+
+    /**
+     * A game read from a file with the time that was spent playing it
+     */
+    public record Loaded(Game game, long elapsedMillis) {
+    }
+
+    /**
+     * Saves the given game, the file is replaced atomically.
+     * Must be called on the thread owning the game
+     * @param game game to be saved
+     * @param elapsedMillis time spent playing the game in milliseconds
+     * @param file file to write
+     * @throws IOException if the file can't be written
+     */
+    public static void save(Game game, long elapsedMillis, Path file) throws IOException {
+        Board board = game.board;
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(MAGIC)
+                        .putShort((short) VERSION)
+                        .putShort((short) 0)
+                        .putInt(board.width)
+                        .putInt(board.height)
+                        .putInt(game.getBombs())
+                        .putInt(game.flags)
+                        .putInt(game.getState().ordinal())
+                        .putInt(0)
+                        .putLong(elapsedMillis);
+
+                for (int bit : new int[]{Board.MINE, Board.VISIBLE, Board.FLAG})
+                    writePlane(channel, buffer, board, bit);
+
+                buffer.flip();
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Packs the given bit of every cell into longs and writes them through the buffer
+     */
+    private static void writePlane(FileChannel channel, ByteBuffer buffer, Board board, int bit) throws IOException {
+        int size = board.size();
+        for (int start = 0; start < size; start += 64) {
+            long word = 0;
+            int end = Math.min(size, start + 64);
+            for (int i = start; i < end; i++) {
+                if ((board.get(i) & bit) != 0)
+                    word |= 1L << (i - start);
+            }
+
+            if (buffer.remaining() < Long.BYTES) {
+                buffer.flip();
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+                buffer.clear();
+            }
+            buffer.putLong(word);
+        }
+    }
+
+    /**
+     * Loads a game saved with {@link #save(Game, long, Path)} onto a board chosen by {@link Board#Board(int, int)},
+     * so large games end up off heap
+     * @param file file to read
+     * @return the loaded game, without any listeners
+     * @throws IOException if the file can't be read or isn't a valid save file
+     */
+    public static Loaded load(Path file) throws IOException {
+        return load(file, null);
+    }
+
+    /**
+     * Loads a game saved with {@link #save(Game, long, Path)} onto a board stored by the given allocator,
+     * e.g. {@code CellStorage.mapped(file)} for games larger than the available memory
+     * @param file file to read
+     * @param allocator creates the storage of the cells, null to let {@link Board#Board(int, int)} choose
+     * @return the loaded game, without any listeners
+     * @throws IOException if the file can't be read or isn't a valid save file
+     */
+    public static Loaded load(Path file, IntFunction<CellStorage> allocator) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE)
+                throw new IOException(file + " is not a Minesweeper save file");
+
+            //the planes are streamed through the buffer, neither the file nor a copy of it is kept in memory
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(HEADER_SIZE);
+            fill(channel, buffer, file);
+            buffer.flip();
+
+            if (buffer.getInt(0) != MAGIC)
+                throw new IOException(file + " is not a Minesweeper save file");
+            int version = buffer.getShort(4);
+            if (version != VERSION)
+                throw new IOException("Unsupported save file version " + version + ", expected " + VERSION);
+
+            int width = buffer.getInt(8);
+            int height = buffer.getInt(12);
+            int bombs = buffer.getInt(16);
+            int flags = buffer.getInt(20);
+            int state = buffer.getInt(24);
+            long elapsedMillis = buffer.getLong(32);
+
+            if (width <= 0 || height <= 0 || bombs < 0 || (long) width * height > Integer.MAX_VALUE
+                    || state < 0 || state >= Game.GameState.values().length)
+                throw new IOException("Corrupt save file header " + file);
+            long planeBytes = planeLongs(width * height) * Long.BYTES;
+            if (size != HEADER_SIZE + 3 * planeBytes)
+                throw new IOException("Save file " + file + " has " + size + " bytes, expected "
+                        + (HEADER_SIZE + 3 * planeBytes));
+
+            Game game;
+            try {
+                game = allocator == null ? new Game(width, height, bombs)
+                        : new Game(new Board(width, height, allocator), bombs);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt save file header " + file, e);
+            }
+            Board board = game.board;
+            buffer.clear();
+            buffer.flip();
+            for (int bit : new int[]{Board.MINE, Board.VISIBLE, Board.FLAG})
+                readPlane(channel, buffer, file, board, bit);
+
+            Game.GameState gameState = Game.GameState.values()[state];
+            game.restore(gameState, flags);
+            if (gameState != Game.GameState.BLANK && game.getBombs() != bombs)
+                throw new IOException("Save file " + file + " contains " + game.getBombs() + " Bombs, expected "
+                        + bombs);
+            return new Loaded(game, elapsedMillis);
+        }
+    }
+
+    /**
+     * Reads from the channel until the buffer is full
+     */
+    private static void fill(FileChannel channel, ByteBuffer buffer, Path file) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0)
+                throw new EOFException("Unexpected end of " + file);
+        }
+    }
+
+    /**
+     * Reads the next plane through the buffer and sets the given bit on every cell whose bit is set in it
+     */
+    private static void readPlane(FileChannel channel, ByteBuffer buffer, Path file, Board board, int bit)
+            throws IOException {
+        int size = board.size();
+        for (int start = 0; start < size; start += 64) {
+            if (buffer.remaining() < Long.BYTES) {
+                buffer.compact();
+                //never past the end of the planes
+                buffer.limit((int) Math.min(buffer.capacity(),
+                        buffer.position() + (planeLongs(size) - (start >>> 6)) * Long.BYTES));
+                fill(channel, buffer, file);
+                buffer.flip();
+            }
+            long word = buffer.getLong();
+            //visiting only the set bits
+            while (word != 0) {
+                int i = start + Long.numberOfTrailingZeros(word);
+                //bits after the last cell are ignored
+                if (i >= size)
+                    break;
+                switch (bit) {
+                    case Board.MINE -> board.setMine(i, true);
+                    case Board.VISIBLE -> board.setVisible(i, true);
+                    case Board.FLAG -> board.setFlag(i, true);
+                }
+                word &= word - 1;
+            }
+        }
+    }
+
+    private static long planeLongs(int cells) {
+        return (cells + 63L) / 64;
+    }
+}
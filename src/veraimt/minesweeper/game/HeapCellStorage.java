@@ -0,0 +1,44 @@
+package veraimt.minesweeper.game;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * {@link CellStorage} in a byte array on the heap
+ */
+final class HeapCellStorage implements CellStorage {
+    //view of eight cells as a long, the cell at the lowest index is the lowest byte
+    private static final VarHandle WORDS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final byte[] cells;
+
+    HeapCellStorage(int size) {
+        cells = new byte[size];
+    }
+
+    @Override
+    public int size() {
+        return cells.length;
+    }
+
+    @Override
+    public byte get(int index) {
+        return cells[index];
+    }
+
+    @Override
+    public void set(int index, byte value) {
+        cells[index] = value;
+    }
+
+    @Override
+    public long getWord(int index) {
+        return (long) WORDS.get(cells, index);
+    }
+
+    @Override
+    public void setWord(int index, long word) {
+        WORDS.set(cells, index, word);
+    }
+}
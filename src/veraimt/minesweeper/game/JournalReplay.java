@@ -0,0 +1,340 @@
+package veraimt.minesweeper.game;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Rebuilds the games of a {@link GameJournal} by applying the journaled actions again.
+ * <p>
+ * Games are replayed one after another, either as fast as possible or at the pace they were recorded with.
+ * A journal cut off in the middle of a record, e.g. after a crash, ends with the last complete record
+ */
+public class JournalReplay implements Closeable {
+    private final InputStream in;
+
+    private boolean recordedPace;
+    private Consumer<Game> gameListener;
+
+    //header of the next game, read while replaying the previous one
+    private Game pending;
+    private boolean ended;
+
+    //time the current action is due at when replaying at the recorded pace
+    private long due;
+    private long actions;
+
+    /**
+     * Reads a journal from the given stream
+     * @param in stream positioned at the start of the journal
+     * @throws IOException if the stream can't be read or doesn't contain a journal
+     */
+    public JournalReplay(InputStream in) throws IOException {
+        this.in = in;
+        int magic = 0;
+        for (int shift = 0; shift < 32; shift += 8)
+            magic |= readByte() << shift;
+        if (magic != GameJournal.MAGIC)
+            throw new IOException("Not a Minesweeper journal");
+        int version = readByte();
+        if (version != GameJournal.VERSION)
+            throw new IOException("Unsupported journal version " + version + ", expected " + GameJournal.VERSION);
+    }
+
+    /**
+     * Opens the given journal file
+     * @param file journal written by {@link GameJournal#open(Path)}
+     * @return the opened replay
+     * @throws IOException if the file can't be read or isn't a journal
+     */
+    public static JournalReplay open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+        try {
+            return new JournalReplay(in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sets if the actions are delayed by the time that passed between them when they were recorded.
+     * The time before the start of a game isn't waited for
+     * @param recordedPace true for the recorded pace, false for full speed
+     */
+    public void setRecordedPace(boolean recordedPace) {
+        this.recordedPace = recordedPace;
+    }
+
+    /**
+     * Sets a listener called with every new game before its actions are replayed, e.g. for adding listeners
+     * @param gameListener the listener or null
+     */
+    public void setGameListener(Consumer<Game> gameListener) {
+        this.gameListener = gameListener;
+    }
+
+    /**
+     * Replays the next game of the journal
+     * @return the game after its last journaled action or null if the journal has no more games
+     * @throws IOException if the journal can't be read or is corrupt
+     */
+    public Game next() throws IOException {
+        Game game = pending;
+        pending = null;
+        if (game == null) {
+            if (ended)
+                return null;
+            int tag = in.read();
+            if (tag < 0)
+                return null;
+            if (tag != GameJournal.GAME)
+                throw new IOException("Journal doesn't start with a game but with record " + tag);
+            game = readGame();
+            if (game == null)
+                return null;
+        }
+
+        if (gameListener != null)
+            gameListener.accept(game);
+        due = System.nanoTime();
+
+        while (!ended) {
+            int tag = in.read();
+            if (tag < 0) {
+                ended = true;
+                break;
+            }
+            if (tag == GameJournal.GAME) {
+                pending = readGame();
+                break;
+            }
+            try {
+                long delay = readVarint();
+                //a cut off record is not applied
+                switch (tag) {
+                    case GameJournal.MINES -> {
+                        int[] mines = readCells(game.board);
+                        await(delay);
+                        game.placeBombs(mines);
+                    }
+                    case GameJournal.SEED -> {
+                        long seed = readVarint();
+                        int i = readIndex(game.board);
+                        boolean pooled = readByte() != 0;
+                        await(delay);
+                        placeBombs(game, seed, i, pooled);
+                    }
+                    case GameJournal.RESTORE -> restore(game);
+                    case GameJournal.SEARCH -> {
+                        int i = readIndex(game.board);
+                        await(delay);
+                        game.search(game.board.xOf(i), game.board.yOf(i));
+                    }
+                    case GameJournal.FLAG -> {
+                        int i = readIndex(game.board);
+                        await(delay);
+                        game.toggleFlag(game.board.xOf(i), game.board.yOf(i));
+                    }
+                    case GameJournal.CHORD -> {
+                        int i = readIndex(game.board);
+                        await(delay);
+                        game.chord(game.board.xOf(i), game.board.yOf(i));
+                    }
+                    default -> throw new IOException("Unknown journal record " + tag);
+                }
+            } catch (EOFException e) {
+                ended = true;
+                break;
+            }
+            actions++;
+        }
+        return game;
+    }
+
+    /**
+     * Replays all remaining games
+     * @return the last game or null if there were no more games
+     * @throws IOException if the journal can't be read or is corrupt
+     */
+    public Game replayAll() throws IOException {
+        Game last = null;
+        for (Game game = next(); game != null; game = next())
+            last = game;
+        return last;
+    }
+
+    /**
+     * @return amount of actions replayed so far
+     */
+    public long getActions() {
+        return actions;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads the payload of a GAME record
+     * @return the blank game or null if the record was cut off
+     */
+    private Game readGame() throws IOException {
+        try {
+            readVarint();
+            int width = readInt();
+            int height = readInt();
+            int bombs = readInt();
+            try {
+                return new Game(width, height, bombs);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt journal game " + width + "*" + height + " with " + bombs + " Bombs", e);
+            }
+        } catch (EOFException e) {
+            ended = true;
+            return null;
+        }
+    }
+
+    /**
+     * Places the Bombs generated from the given seed the same way as the journaled game
+     */
+    private static void placeBombs(Game game, long seed, int firstClick, boolean pooled) throws IOException {
+        int x = game.board.xOf(firstClick);
+        int y = game.board.yOf(firstClick);
+        try {
+            if (pooled)
+                game.placeBombs(BoardPool.layout(game.width, game.height, game.getBombs(), seed, x, y),
+                        OptionalLong.of(seed));
+            else
+                game.randomize(x, y, seed);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt journal, the Bombs of seed " + seed + " can't be placed", e);
+        }
+    }
+
+    private void restore(Game game) throws IOException {
+        int state = readInt();
+        int flags = readInt();
+        if (state < 0 || state >= Game.GameState.values().length)
+            throw new IOException("Corrupt journal game state " + state);
+
+        //all lists are read before the board is touched, so a cut off record leaves the game blank
+        Board board = game.board;
+        int[] mines = readCells(board);
+        int[] visible = readCells(board);
+        int[] flagged = readCells(board);
+        for (int i : mines)
+            board.setMine(i, true);
+        for (int i : visible)
+            board.setVisible(i, true);
+        for (int i : flagged)
+            board.setFlag(i, true);
+        game.restore(Game.GameState.values()[state], flags);
+    }
+
+    /**
+     * Reads a list of cell indices stored as differences
+     */
+    private int[] readCells(Board board) throws IOException {
+        int count = readInt();
+        if (count > board.size())
+            throw new IOException("Corrupt journal, " + count + " cells on a board of " + board.size());
+        int[] cells = new int[count];
+        long index = 0;
+        for (int n = 0; n < count; n++) {
+            index += readVarint();
+            if (index < 0 || index >= board.size())
+                throw new IOException("Corrupt journal, cell " + index + " is out of bounds");
+            cells[n] = (int) index;
+        }
+        return cells;
+    }
+
+    private int readIndex(Board board) throws IOException {
+        int index = readInt();
+        if (index >= board.size())
+            throw new IOException("Corrupt journal, cell " + index + " is out of bounds");
+        return index;
+    }
+
+    /**
+     * Waits until the action delayed by the given time is due when replaying at the recorded pace
+     * @param delayMicros time since the previous action in microseconds
+     */
+    private void await(long delayMicros) {
+        if (!recordedPace)
+            return;
+        //waiting for the schedule instead of each delay, so the waits don't add up to a drift
+        due += delayMicros * 1000;
+        long wait;
+        while ((wait = due - System.nanoTime()) > 0)
+            LockSupport.parkNanos(wait);
+    }
+
+    private int readInt() throws IOException {
+        long value = readVarint();
+        //a 10 byte varint can set the sign bit
+        if (value < 0 || value > Integer.MAX_VALUE)
+            throw new IOException("Corrupt journal, " + value + " is out of range");
+        return (int) value;
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Corrupt journal, varint is too long");
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0)
+            throw new EOFException();
+        return b;
+    }
+
+    /**
+     * Replays a journal and prints every game with the time it took.
+     * <p>
+     * Usage: {@code JournalReplay <journal> [recorded]}, with "recorded" the games are replayed at the recorded pace
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1)
+            throw new IllegalArgumentException("Usage: JournalReplay <journal> [recorded]");
+
+        try (JournalReplay replay = open(Path.of(args[0]))) {
+            replay.setRecordedPace(args.length > 1 && args[1].equals("recorded"));
+            int games = 0;
+            long actions = 0;
+            long start = System.nanoTime();
+            Game game;
+            while (true) {
+                long time = System.nanoTime();
+                game = replay.next();
+                if (game == null)
+                    break;
+                time = System.nanoTime() - time;
+                games++;
+                System.out.printf("game %d: %d*%d Bombs=%d actions=%d state=%s replayed in %.2fms%n", games,
+                        game.width, game.height, game.getBombs(), replay.getActions() - actions, game.getState(),
+                        time / 1e6);
+                actions = replay.getActions();
+            }
+            System.out.printf("%d games with %d actions replayed in %.2fms%n", games, actions,
+                    (System.nanoTime() - start) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package veraimt.minesweeper.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel variant of {@link FloodFill} for very large boards.
+ * <p>
+ * The board is split into horizontal stripes. Every stripe is flooded by its own task on a {@link ForkJoinPool}
+ * and only ever writes cells in its own rows. Neighbours lying in another stripe are collected as frontier
+ * crossings and handed to the owning stripe in the next round, until no crossings are left.
+ * The revealed cells are the same as with the sequential engine, only their order differs
+ */
+public class ParallelFloodFill {
+    //cells the buffers of a stripe keep between reveals, larger buffers of a huge reveal are released
+    private static final int RETAINED_CAPACITY = 1 << 14;
+
+    private final Board board;
+    private final ForkJoinPool pool;
+
+    //rows per stripe
+    private final int stripeHeight;
+    private final Stripe[] stripes;
+
+    public ParallelFloodFill(Board board) {
+        this(board, ForkJoinPool.commonPool());
+    }
+
+    public ParallelFloodFill(Board board, ForkJoinPool pool) {
+        this.board = board;
+        this.pool = pool;
+
+        //a few stripes per worker, so a region spanning only part of the board still spreads across workers
+        int count = Math.min(board.height, Math.max(1, pool.getParallelism() * 4));
+        stripeHeight = (board.height + count - 1) / count;
+        count = (board.height + stripeHeight - 1) / stripeHeight;
+
+        stripes = new Stripe[count];
+        for (int s = 0; s < count; s++)
+            stripes[s] = new Stripe(s * stripeHeight, Math.min(board.height, (s + 1) * stripeHeight));
+    }
+
+    /**
+     * Reveals the cell at the given index and, if its count is 0, all connected cells
+     * @param start index of the cell to start at
+     * @param revealed list the indices of all revealed cells are appended to
+     * @return amount of Flags that were removed from revealed cells
+     */
+    public int reveal(int start, CellList revealed) {
+        if (board.isMine(start) || board.isVisible(start))
+            return 0;
+
+        stripeOf(start).inbox.add(start);
+
+        List<Stripe> active = new ArrayList<>();
+        while (true) {
+            active.clear();
+            for (Stripe stripe : stripes) {
+                if (!stripe.inbox.isEmpty()) {
+                    stripe.reinitialize();
+                    active.add(stripe);
+                }
+            }
+            if (active.isEmpty())
+                break;
+
+            //flooding all stripes with pending cells
+            if (active.size() == 1)
+                active.get(0).invoke();
+            else
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        invokeAll(active);
+                    }
+                });
+
+            //handing the frontier crossings to their stripes
+            for (Stripe stripe : active) {
+                CellList outbox = stripe.outbox;
+                for (int n = 0; n < outbox.size(); n++) {
+                    int i = outbox.get(n);
+                    stripeOf(i).inbox.add(i);
+                }
+                outbox.clear();
+            }
+        }
+
+        //merging the results of all stripes
+        int removedFlags = 0;
+        for (Stripe stripe : stripes) {
+            for (int n = 0; n < stripe.revealed.size(); n++)
+                revealed.add(stripe.revealed.get(n));
+            stripe.revealed.clear();
+            removedFlags += stripe.removedFlags;
+            stripe.removedFlags = 0;
+            stripe.trim();
+        }
+        return removedFlags;
+    }
+
+    private Stripe stripeOf(int index) {
+        return stripes[board.yOf(index) / stripeHeight];
+    }
+
+    /**
+     * Task flooding the rows [yStart, yEnd) of the board
+     */
+    private class Stripe extends RecursiveAction {
+        //tasks are never serialized
+        private static final long serialVersionUID = 1L;
+
+        private final int yStart;
+        private final int yEnd;
+
+        //cells to be revealed in this stripe
+        private final CellList inbox = new CellList();
+        //cells to be revealed in other stripes
+        private final CellList outbox = new CellList();
+        private final CellList revealed = new CellList();
+        private int removedFlags;
+
+        private int[] stack = new int[64];
+
+        private Stripe(int yStart, int yEnd) {
+            this.yStart = yStart;
+            this.yEnd = yEnd;
+        }
+
+        /**
+         * Releases the capacity of the buffers above {@link #RETAINED_CAPACITY}, the buffers have to be empty
+         */
+        private void trim() {
+            inbox.trim(RETAINED_CAPACITY);
+            outbox.trim(RETAINED_CAPACITY);
+            revealed.trim(RETAINED_CAPACITY);
+            if (stack.length > RETAINED_CAPACITY)
+                stack = new int[RETAINED_CAPACITY];
+        }
+
+        @Override
+        protected void compute() {
+            final int width = board.width;
+            int top = 0;
+
+            for (int n = 0; n < inbox.size(); n++) {
+                int seed = inbox.get(n);
+                //the cell might have been reached from another seed already
+                if (board.isVisible(seed))
+                    continue;
+                reveal(seed);
+                if (board.getCount(seed) == 0)
+                    top = push(seed, top);
+
+                while (top > 0) {
+                    int i = stack[--top];
+
+                    int x = i % width;
+                    int y = i / width;
+
+                    int xMin = Math.max(0, x-1);
+                    int xMax = Math.min(width-1, x+1);
+                    int yMin = Math.max(0, y-1);
+                    int yMax = Math.min(board.height-1, y+1);
+
+                    for (int y1 = yMin; y1 <= yMax; y1++) {
+                        boolean own = y1 >= yStart && y1 < yEnd;
+                        for (int x1 = xMin; x1 <= xMax; x1++) {
+                            int c = y1 * width + x1;
+                            if (!own) {
+                                //cells of other stripes are neither read nor written here
+                                outbox.add(c);
+                                continue;
+                            }
+                            if (board.isVisible(c) || board.isMine(c))
+                                continue;
+
+                            reveal(c);
+                            if (board.getCount(c) == 0)
+                                top = push(c, top);
+                        }
+                    }
+                }
+            }
+            inbox.clear();
+        }
+
+        private void reveal(int i) {
+            if (board.hasFlag(i)) {
+                board.setFlag(i, false);
+                removedFlags++;
+            }
+            board.setVisible(i, true);
+            revealed.add(i);
+        }
+
+        private int push(int i, int top) {
+            if (top == stack.length)
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            stack[top] = i;
+            return top + 1;
+        }
+    }
+}
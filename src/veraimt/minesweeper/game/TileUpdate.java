@@ -0,0 +1,121 @@
+package veraimt.minesweeper.game;
+
+/**
+ * Batch of cells changed by a single action of a {@link Game}, passed to tile update listeners.
+ * <p>
+ * The event and its cells are reused by the game for the next update, so they are only valid during the
+ * listener call. Listeners that need the cells later have to copy them, e.g. with {@link #toArray()}
+ */
+public final class TileUpdate {
+    private final Board board;
+    private Kind kind;
+    private CellList cells;
+
+    //bounding rectangle of the changed cells, inclusive
+    private int minX;
+    private int minY;
+    private int maxX;
+    private int maxY;
+
+    TileUpdate(Board board) {
+        this.board = board;
+    }
+
+    /**
+     * Points this event to the given changed cells and computes their bounding rectangle
+     * @param kind the kind of change
+     * @param cells indices of the changed cells, must not be empty
+     */
+    void set(Kind kind, CellList cells) {
+        this.kind = kind;
+        this.cells = cells;
+
+        int width = board.width;
+        minX = width;
+        minY = board.height;
+        maxX = -1;
+        maxY = -1;
+        for (int n = 0; n < cells.size(); n++) {
+            int i = cells.get(n);
+            int x = i % width;
+            int y = i / width;
+            if (x < minX) minX = x;
+            if (x > maxX) maxX = x;
+            if (y < minY) minY = y;
+            if (y > maxY) maxY = y;
+        }
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return amount of changed cells
+     */
+    public int size() {
+        return cells.size();
+    }
+
+    /**
+     * @param n position in this event, between 0 and {@link #size()}
+     * @return index of the n-th changed cell
+     */
+    public int get(int n) {
+        return cells.get(n);
+    }
+
+    public int getX(int n) {
+        return board.xOf(cells.get(n));
+    }
+
+    public int getY(int n) {
+        return board.yOf(cells.get(n));
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * @return a copy of the changed cell indices
+     */
+    public int[] toArray() {
+        return cells.toArray();
+    }
+
+    @Override
+    public String toString() {
+        return "TileUpdate{" +
+                "kind=" + kind +
+                ", size=" + size() +
+                ", bounds=[" + minX + "," + minY + " - " + maxX + "," + maxY + "]" +
+                '}';
+    }
+
+    /**
+     * What happened to the changed cells
+     */
+    public enum Kind {
+        //Tiles revealed by a search
+        REVEAL,
+        //a Flag was placed or removed
+        FLAG,
+        //remaining Tiles revealed after winning by Flags
+        WIN,
+        //all Bombs revealed after searching one
+        LOSE
+    }
+}
@@ -1,43 +1,68 @@
 package veraimt.minesweeper.game.tiles;
 
+import veraimt.minesweeper.game.Board;
+
+import java.util.Objects;
+
+/**
+ * Lightweight view of a single cell of a {@link Board}.
+ * The state is not copied, it is read from the Board on every access
+ */
 public abstract class BaseTile {
 
+    protected final Board board;
     public final int x;
     public final int y;
-    public boolean hasFlag;
-    public boolean isVisible;
 
-    public BaseTile(int x, int y) {
+    public BaseTile(Board board, int x, int y) {
+        this.board = board;
         this.x = x;
         this.y = y;
     }
 
     /**
-     * Evaluates the count of this and surrounding Tiles according to the game rules
-     * @param grid game grid
+     * Creates the matching view for the cell at the given coordinates
+     * @param board board containing the cell
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @return a {@link Bomb} if the cell contains a mine, otherwise a {@link Tile}
      */
-    public void evaluateCounts(BaseTile[][] grid) {
-        int xMin = Math.max(0, x-1);
-        int xMax = Math.min(grid.length-1, x+1);
+    public static BaseTile of(Board board, int x, int y) {
+        if (board.isMine(board.index(x, y)))
+            return new Bomb(board, x, y);
+        return new Tile(board, x, y);
+    }
 
-        int yMin = Math.max(0, y-1);
-        int yMax = Math.min(grid.length-1, y+1);
+    public int index() {
+        return board.index(x, y);
+    }
+
+    public boolean hasFlag() {
+        return board.hasFlag(index());
+    }
 
-        for (int x = xMin; x <= xMax; x++) {
-            for (int y = yMin; y <= yMax; y++) {
-                evaluateTile(grid[x][y]);
-            }
-        }
+    public boolean isVisible() {
+        return board.isVisible(index());
     }
 
-    protected abstract void evaluateTile(BaseTile tile);
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BaseTile tile)) return false;
+        return x == tile.x && y == tile.y && board == tile.board;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(x, y);
+    }
 
     @Override
     public String toString() {
         return "BaseTile{" +
                 "x=" + x +
                 ", y=" + y +
-                ", hasFlag=" + hasFlag +
+                ", hasFlag=" + hasFlag() +
                 '}';
     }
 }
@@ -1,14 +1,10 @@
 package veraimt.minesweeper.game.tiles;
 
-public class Bomb extends BaseTile{
-    public Bomb(int x, int y) {
-        super(x, y);
-    }
+import veraimt.minesweeper.game.Board;
 
-    @Override
-    protected void evaluateTile(BaseTile tile) {
-        if (tile instanceof Tile t)
-            t.evaluateTile(this);
+public class Bomb extends BaseTile{
+    public Bomb(Board board, int x, int y) {
+        super(board, x, y);
     }
 
 
@@ -17,7 +13,7 @@ public class Bomb extends BaseTile{
         return "Bomb{" +
                 "x=" + x +
                 ", y=" + y +
-                ", hasFlag=" + hasFlag +
+                ", hasFlag=" + hasFlag() +
                 '}';
     }
 }
@@ -1,38 +1,15 @@
 package veraimt.minesweeper.game.tiles;
 
-public class Tile extends BaseTile {
-
-    private byte count;
-
-    public Tile(int x, int y) {
-        super(x, y);
-    }
-
-    public void incrementCount() {
-        count++;
-    }
+import veraimt.minesweeper.game.Board;
 
-    public void decrementCount() {
-        if (count > 0)
-            count--;
-    }
-
-
-    public void evaluateCounts(BaseTile[][] grid) {
-        count = 0;
-        super.evaluateCounts(grid);
-    }
+public class Tile extends BaseTile {
 
-    @Override
-    protected void evaluateTile(BaseTile tile) {
-        if (tile instanceof Bomb)
-            incrementCount();
-        else if (tile instanceof Tile t)
-            t.decrementCount();
+    public Tile(Board board, int x, int y) {
+        super(board, x, y);
     }
 
     public byte getCount() {
-        return count;
+        return (byte) board.getCount(index());
     }
 
     @Override
@@ -40,8 +17,8 @@ public class Tile extends BaseTile {
         return "Tile{" +
                 "x=" + x +
                 ", y=" + y +
-                ", hasFlag=" + hasFlag +
-                ", count=" + count +
+                ", hasFlag=" + hasFlag() +
+                ", count=" + getCount() +
                 '}';
     }
 }
@@ -0,0 +1,32 @@
+package veraimt.minesweeper.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the Flight Recorder events of the game, carrying the size of the board.
+ * <p>
+ * Events are used like {@code event.begin(); ... if (event.shouldCommit()) {...; event.commit();}}, so nothing but
+ * the timestamps is computed unless a recording has the event enabled and it lasted longer than its threshold
+ */
+@Category("Minesweeper")
+@StackTrace(false)
+public abstract class BoardEvent extends Event {
+    @Label("Board Width")
+    public int boardWidth;
+
+    @Label("Board Height")
+    public int boardHeight;
+
+    /**
+     * Sets the size of the board
+     * @param width width of the board
+     * @param height height of the board
+     */
+    public void setBoard(int width, int height) {
+        boardWidth = width;
+        boardHeight = height;
+    }
+}
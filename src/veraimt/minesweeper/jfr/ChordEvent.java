@@ -0,0 +1,24 @@
+package veraimt.minesweeper.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("veraimt.minesweeper.Chord")
+@Label("Chord")
+@Description("The neighbours of a Tile with all its Bombs flagged were revealed, or a misplaced Flag lost the game")
+@Threshold("1 ms")
+public class ChordEvent extends BoardEvent {
+    @Label("X")
+    public int x;
+
+    @Label("Y")
+    public int y;
+
+    @Label("Cells Revealed")
+    public int cellsRevealed;
+
+    @Label("Lost")
+    public boolean lost;
+}
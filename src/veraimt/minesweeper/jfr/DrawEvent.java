@@ -0,0 +1,28 @@
+package veraimt.minesweeper.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("veraimt.minesweeper.Draw")
+@Label("Draw")
+@Description("Part of the board was drawn into the back-buffer")
+@Threshold("2 ms")
+public class DrawEvent extends BoardEvent {
+    @Label("Area Width")
+    @Description("Width of the drawn area in pixels")
+    public int areaWidth;
+
+    @Label("Area Height")
+    @Description("Height of the drawn area in pixels")
+    public int areaHeight;
+
+    @Label("Cell Size")
+    @Description("Pixels per cell, 1 if several cells are combined into a pixel")
+    public int cellSize;
+
+    @Label("Zoom Level")
+    @Description("Binary logarithm of the cells combined into a pixel in each direction")
+    public int zoomLevel;
+}
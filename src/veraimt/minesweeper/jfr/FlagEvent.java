@@ -0,0 +1,22 @@
+package veraimt.minesweeper.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("veraimt.minesweeper.Flag")
+@Label("Toggle Flag")
+@Description("A Flag was placed or removed")
+@Threshold("1 ms")
+public class FlagEvent extends BoardEvent {
+    @Label("X")
+    public int x;
+
+    @Label("Y")
+    public int y;
+
+    @Label("Flagged")
+    @Description("True if the Flag was placed, false if it was removed")
+    public boolean flagged;
+}
@@ -0,0 +1,19 @@
+package veraimt.minesweeper.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("veraimt.minesweeper.GameEnd")
+@Label("Game End")
+@Description("The game was won or lost, revealing the remaining Tiles or all Bombs")
+@Threshold("0 ms")
+public class GameEndEvent extends BoardEvent {
+    @Label("Won")
+    public boolean won;
+
+    @Label("Cells Revealed")
+    @Description("Tiles revealed when the game ended")
+    public int cellsRevealed;
+}
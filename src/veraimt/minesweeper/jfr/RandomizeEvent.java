@@ -0,0 +1,19 @@
+package veraimt.minesweeper.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("veraimt.minesweeper.Randomize")
+@Label("Randomize")
+@Description("The Bombs were placed on the first click")
+@Threshold("1 ms")
+public class RandomizeEvent extends BoardEvent {
+    @Label("Bombs")
+    public int bombs;
+
+    @Label("Pooled")
+    @Description("A pre-generated layout was used")
+    public boolean pooled;
+}
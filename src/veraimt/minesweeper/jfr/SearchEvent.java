@@ -0,0 +1,28 @@
+package veraimt.minesweeper.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("veraimt.minesweeper.Search")
+@Label("Search")
+@Description("A Tile was searched, revealing Tiles or losing the game")
+@Threshold("1 ms")
+public class SearchEvent extends BoardEvent {
+    @Label("X")
+    public int x;
+
+    @Label("Y")
+    public int y;
+
+    @Label("Cells Revealed")
+    public int cellsRevealed;
+
+    @Label("Parallel")
+    @Description("Revealed by the fork-join engine")
+    public boolean parallel;
+
+    @Label("Lost")
+    public boolean lost;
+}
@@ -0,0 +1,34 @@
+package veraimt.minesweeper.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter that can be incremented from any thread, does nothing if metrics are disabled
+ */
+public final class Counter {
+    public final String name;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public void increment() {
+        if (Metrics.ENABLED)
+            value.increment();
+    }
+
+    public void add(long amount) {
+        if (Metrics.ENABLED)
+            value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    @Override
+    public String toString() {
+        return name + "=" + get();
+    }
+}
@@ -0,0 +1,50 @@
+package veraimt.minesweeper.metrics;
+
+/**
+ * {@link LatencyHistogram} that can be recorded to from any thread, does nothing if metrics are disabled
+ */
+public final class Histogram {
+    //Units of recorded values
+    public static final String NANOS = "ns";
+    public static final String CELLS = "cells";
+
+    public final String name;
+    public final String unit;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    Histogram(String name, String unit) {
+        this.name = name;
+        this.unit = unit;
+    }
+
+    public void record(long value) {
+        if (!Metrics.ENABLED)
+            return;
+        synchronized (this) {
+            histogram.record(value);
+        }
+    }
+
+    /**
+     * Records the time passed since the given start
+     * @param start start time from {@link Metrics#now()}
+     */
+    public void recordSince(long start) {
+        if (Metrics.ENABLED)
+            record(System.nanoTime() - start);
+    }
+
+    /**
+     * @return a copy of the values recorded so far
+     */
+    public synchronized LatencyHistogram snapshot() {
+        return histogram.copy();
+    }
+
+    @Override
+    public String toString() {
+        LatencyHistogram h = snapshot();
+        return name + "{count=" + h.getCount() + ", p50=" + h.percentile(50) + ", p99=" + h.percentile(99)
+                + ", max=" + h.getMax() + " " + unit + "}";
+    }
+}
@@ -0,0 +1,91 @@
+package veraimt.minesweeper.metrics;
+
+/**
+ * Histogram of latencies in nanoseconds, or other non-negative values, with a relative precision of about 6%.
+ * Values are grouped by their highest bit, every group is split into 16 linear sub-buckets.
+ * Not thread-safe, see {@link Histogram} for a shared one
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final long[] buckets = new long[64 * SUB_BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+        buckets[bucketOf(nanos)]++;
+        count++;
+        sum += nanos;
+        max = Math.max(max, nanos);
+    }
+
+    /**
+     * Adds all recorded values of the given histogram to this one
+     * @param other histogram to be merged into this one
+     */
+    public void merge(LatencyHistogram other) {
+        for (int b = 0; b < buckets.length; b++)
+            buckets[b] += other.buckets[b];
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the approximated value below which the given share of the recorded values lies
+     * @param percentile percentile between 0 and 100
+     * @return the approximated value in nanoseconds
+     */
+    public long percentile(double percentile) {
+        if (count == 0)
+            return 0;
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int b = 0; b < buckets.length; b++) {
+            seen += buckets[b];
+            if (seen >= Math.max(1, rank))
+                return Math.min(max, upperBound(b));
+        }
+        return max;
+    }
+
+    /**
+     * @return a copy of this histogram
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
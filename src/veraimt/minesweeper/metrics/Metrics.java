@@ -0,0 +1,72 @@
+package veraimt.minesweeper.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registry of the counters and histograms of the engine and the UI.
+ * <p>
+ * Recording is enabled with -Dminesweeper.metrics=true or by setting a snapshot file with
+ * -Dminesweeper.metrics.file. When disabled, {@link #ENABLED} is a constant false and the JIT removes the
+ * recording code, so metrics can stay on hot paths. Metrics are created once, usually in static fields:
+ * <pre>
+ * private static final Histogram PAINT = Metrics.histogram("ui.paint", Histogram.NANOS);
+ *
+ * long start = Metrics.now();
+ * ...
+ * PAINT.recordSince(start);
+ * </pre>
+ */
+public final class Metrics {
+    //file periodic snapshots are written to, .csv for CSV, otherwise JSON lines
+    public static final String FILE = System.getProperty("minesweeper.metrics.file");
+    //interval between two snapshots in milliseconds
+    public static final long INTERVAL = Long.getLong("minesweeper.metrics.interval", 10_000);
+
+    public static final boolean ENABLED = Boolean.getBoolean("minesweeper.metrics") || FILE != null;
+
+    //sorted by name, so snapshots are stable
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the counter with the given name, creating it if it doesn't exist yet
+     * @param name name of the counter, e.g. "game.searches"
+     * @return the counter
+     */
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Returns the histogram with the given name, creating it if it doesn't exist yet
+     * @param name name of the histogram, e.g. "ui.paint"
+     * @param unit unit of the recorded values, e.g. {@link Histogram#NANOS}
+     * @return the histogram
+     */
+    public static Histogram histogram(String name, String unit) {
+        Histogram histogram = HISTOGRAMS.computeIfAbsent(name, n -> new Histogram(n, unit));
+        if (!histogram.unit.equals(unit))
+            throw new IllegalArgumentException("Histogram " + name + " already exists with unit " + histogram.unit);
+        return histogram;
+    }
+
+    /**
+     * @return the current time in nanoseconds for measuring a duration, 0 if metrics are disabled
+     */
+    public static long now() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    public static Map<String, Counter> counters() {
+        return Collections.unmodifiableMap(COUNTERS);
+    }
+
+    public static Map<String, Histogram> histograms() {
+        return Collections.unmodifiableMap(HISTOGRAMS);
+    }
+}
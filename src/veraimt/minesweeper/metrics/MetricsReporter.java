@@ -0,0 +1,148 @@
+package veraimt.minesweeper.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Periodically appends a snapshot of all metrics to a file.
+ * Files ending with .csv get one row per metric and snapshot, all other files one JSON object per line and snapshot.
+ * A snapshot that can't be written is logged and skipped, the following snapshots are still attempted
+ */
+public class MetricsReporter {
+    private static final Logger LOG = Logger.getLogger(MetricsReporter.class.getName());
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String CSV_HEADER = "timestamp,type,name,unit,count,mean,p50,p90,p99,p99.9,max\n";
+
+    private final Path file;
+    private final boolean csv;
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Starts writing snapshots to the given file, a last snapshot is written when the JVM shuts down
+     * @param file file the snapshots are appended to
+     * @param intervalMillis time between two snapshots in milliseconds
+     * @return the started reporter
+     */
+    public static MetricsReporter start(Path file, long intervalMillis) {
+        if (intervalMillis <= 0)
+            throw new IllegalArgumentException("Interval must be positive: " + intervalMillis);
+        MetricsReporter reporter = new MetricsReporter(file);
+        reporter.executor.scheduleAtFixedRate(reporter::writeQuietly, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(reporter::stop, "MetricsReporter shutdown"));
+        return reporter;
+    }
+
+    /**
+     * Starts the reporter configured with -Dminesweeper.metrics.file and -Dminesweeper.metrics.interval
+     * @return the started reporter or null if no file is configured
+     */
+    public static MetricsReporter startConfigured() {
+        return Metrics.FILE == null ? null : start(Path.of(Metrics.FILE), Metrics.INTERVAL);
+    }
+
+    private MetricsReporter(Path file) {
+        this.file = file;
+        this.csv = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "MetricsReporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops the periodic snapshots after writing a last one
+     */
+    public void stop() {
+        if (executor.isShutdown())
+            return;
+        executor.shutdownNow();
+        writeQuietly();
+    }
+
+    /**
+     * Appends a snapshot of all metrics to the file
+     * @throws IOException if the file can't be written
+     */
+    public synchronized void write() throws IOException {
+        boolean header = csv && (!Files.exists(file) || Files.size(file) == 0);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            long timestamp = System.currentTimeMillis();
+            if (csv) {
+                if (header)
+                    writer.write(CSV_HEADER);
+                writeCsv(writer, timestamp);
+            } else {
+                writeJson(writer, timestamp);
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot, logging instead of throwing errors, since an exception would cancel the periodic snapshots
+     */
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (IOException | RuntimeException e) {
+            LOG.log(Level.WARNING, "Metrics snapshot couldn't be written to " + file, e);
+        }
+    }
+
+    private static void writeCsv(Writer writer, long timestamp) throws IOException {
+        for (Counter counter : Metrics.counters().values())
+            writer.write(timestamp + ",counter," + counter.name + ",," + counter.get() + ",,,,,,\n");
+
+        for (Histogram histogram : Metrics.histograms().values()) {
+            LatencyHistogram h = histogram.snapshot();
+            StringBuilder row = new StringBuilder()
+                    .append(timestamp).append(",histogram,").append(histogram.name).append(',').append(histogram.unit)
+                    .append(',').append(h.getCount())
+                    .append(',').append(String.format(Locale.ROOT, "%.1f", h.getMean()));
+            for (double p : PERCENTILES)
+                row.append(',').append(h.percentile(p));
+            row.append(',').append(h.getMax()).append('\n');
+            writer.write(row.toString());
+        }
+    }
+
+    private static void writeJson(Writer writer, long timestamp) throws IOException {
+        StringBuilder json = new StringBuilder("{\"timestamp\":").append(timestamp).append(",\"counters\":{");
+        String separator = "";
+        for (Map.Entry<String, Counter> entry : Metrics.counters().entrySet()) {
+            json.append(separator).append('"').append(entry.getKey()).append("\":").append(entry.getValue().get());
+            separator = ",";
+        }
+
+        json.append("},\"histograms\":{");
+        separator = "";
+        for (Histogram histogram : Metrics.histograms().values()) {
+            LatencyHistogram h = histogram.snapshot();
+            json.append(separator).append('"').append(histogram.name).append("\":{")
+                    .append("\"unit\":\"").append(histogram.unit).append('"')
+                    .append(",\"count\":").append(h.getCount())
+                    .append(",\"mean\":").append(String.format(Locale.ROOT, "%.1f", h.getMean()));
+            for (double p : PERCENTILES)
+                json.append(",\"p").append(p == (long) p ? String.valueOf((long) p) : String.valueOf(p))
+                        .append("\":").append(h.percentile(p));
+            json.append(",\"max\":").append(h.getMax()).append('}');
+            separator = ",";
+        }
+        json.append("}}\n");
+        writer.write(json.toString());
+    }
+}
@@ -0,0 +1,18 @@
+package veraimt.minesweeper.sim;
+
+/**
+ * A single move of a player
+ * @param x x-coordinate
+ * @param y y-coordinate
+ * @param flag true for toggling a Flag, false for searching
+ */
+public record Move(int x, int y, boolean flag) {
+
+    public static Move search(int x, int y) {
+        return new Move(x, y, false);
+    }
+
+    public static Move flag(int x, int y) {
+        return new Move(x, y, true);
+    }
+}
@@ -0,0 +1,26 @@
+package veraimt.minesweeper.sim;
+
+import veraimt.minesweeper.game.Game;
+
+/**
+ * Decides the moves of a simulated player.
+ * Every simulation thread uses its own instance, so implementations don't need to be thread-safe
+ */
+public interface MoveStrategy {
+
+    /**
+     * Returns the first click on a blank game, which decides the position of the Bombs
+     * @param game blank game
+     * @return the first Move, must be a search
+     */
+    default Move firstMove(Game game) {
+        return Move.search(game.width / 2, game.height / 2);
+    }
+
+    /**
+     * Returns the next Move for the given running game
+     * @param game running game
+     * @return the next Move or null to give up
+     */
+    Move nextMove(Game game);
+}
@@ -0,0 +1,39 @@
+package veraimt.minesweeper.sim;
+
+import veraimt.minesweeper.game.Board;
+import veraimt.minesweeper.game.Game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Searches random hidden Tiles, serves as baseline for other strategies
+ */
+public class RandomStrategy implements MoveStrategy {
+    //tries before falling back to a linear scan
+    private static final int MAX_TRIES = 64;
+
+    private final SplittableRandom random;
+
+    public RandomStrategy(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public Move nextMove(Game game) {
+        Board board = game.board;
+        int start = random.nextInt(board.size());
+        for (int t = 0; t < MAX_TRIES; t++) {
+            int i = random.nextInt(board.size());
+            if (!board.isVisible(i) && !board.hasFlag(i))
+                return Move.search(board.xOf(i), board.yOf(i));
+        }
+
+        //few hidden Tiles left, searching the next one from a random position
+        for (int n = 0; n < board.size(); n++) {
+            int i = (start + n) % board.size();
+            if (!board.isVisible(i) && !board.hasFlag(i))
+                return Move.search(board.xOf(i), board.yOf(i));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,262 @@
+package veraimt.minesweeper.sim;
+
+import veraimt.minesweeper.game.BoardMetrics;
+import veraimt.minesweeper.game.Difficulty;
+import veraimt.minesweeper.game.Game;
+import veraimt.minesweeper.metrics.LatencyHistogram;
+import veraimt.minesweeper.metrics.MetricsReporter;
+import veraimt.minesweeper.solver.NoGuessGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Headless batch simulation of games, used for measuring the throughput of the game engine without a display.
+ * <p>
+ * Usage: {@code Simulator [games per difficulty] [width] [height] [threads] [difficulties...]},
+ * the strategy is chosen with -Dminesweeper.sim.strategy=solver|random, grids without guesses are generated with
+ * -Dminesweeper.sim.noguess=true
+ */
+public class Simulator {
+
+    private final int width;
+    private final int height;
+    private final int threads;
+    private final Function<SplittableRandom, MoveStrategy> strategyFactory;
+    //generates the grids if they have to be solvable without guessing, may be null
+    private final NoGuessGenerator noGuess;
+
+    /**
+     * @param width width of the simulated games
+     * @param height height of the simulated games
+     * @param threads amount of simulation threads
+     * @param strategyFactory creates the strategy of a simulation thread from the thread's random generator
+     */
+    public Simulator(int width, int height, int threads, Function<SplittableRandom, MoveStrategy> strategyFactory) {
+        this(width, height, threads, strategyFactory, null);
+    }
+
+    /**
+     * @param width width of the simulated games
+     * @param height height of the simulated games
+     * @param threads amount of simulation threads
+     * @param strategyFactory creates the strategy of a simulation thread from the thread's random generator
+     * @param noGuess generates grids that can be solved without guessing, null for random grids
+     */
+    public Simulator(int width, int height, int threads, Function<SplittableRandom, MoveStrategy> strategyFactory,
+                     NoGuessGenerator noGuess) {
+        this.width = width;
+        this.height = height;
+        this.threads = threads;
+        this.strategyFactory = strategyFactory;
+        this.noGuess = noGuess;
+    }
+
+    /**
+     * Plays the given amount of games with the given difficulty across all simulation threads
+     * @param difficulty difficulty of the games
+     * @param games amount of games to be played
+     * @param seed seed of the strategies' random generators and of the Bomb layouts
+     * @return the merged results of all threads
+     */
+    public Result run(Difficulty difficulty, int games, long seed) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            SplittableRandom random = new SplittableRandom(seed);
+            List<Future<Result>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                //spreading the games evenly across the threads
+                int count = games / threads + (t < games % threads ? 1 : 0);
+                //every thread has its own generators, so the results only depend on the seed
+                SplittableRandom threadRandom = random.split();
+                SplittableRandom boardRandom = random.split();
+                futures.add(executor.submit(() -> play(difficulty, count, strategyFactory.apply(threadRandom),
+                        boardRandom)));
+            }
+
+            Result result = new Result(difficulty);
+            for (var future : futures)
+                result.merge(future.get());
+            result.wallNanos = System.nanoTime() - start;
+            return result;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays the given amount of games on the current thread
+     */
+    private Result play(Difficulty difficulty, int games, MoveStrategy strategy, SplittableRandom boardRandom) {
+        Result result = new Result(difficulty);
+        for (int n = 0; n < games; n++) {
+            Game game = new Game(width, height, difficulty.bombs(width, height));
+
+            //first click decides the position of the Bombs
+            Move move = strategy.firstMove(game);
+            long time = System.nanoTime();
+            if (noGuess == null) {
+                game.randomize(move.x(), move.y(), boardRandom.nextLong());
+            } else {
+                NoGuessGenerator.Result layout = noGuess.generate(width, height, game.getBombs(), move.x(), move.y(),
+                        boardRandom);
+                game.placeBombs(layout.bombs());
+                result.repairs += layout.repairs();
+                if (!layout.solvable())
+                    result.unsolvable++;
+            }
+            result.randomize.record(System.nanoTime() - time);
+            //computed after the randomize time was taken, it is recorded by the game.boardMetrics histogram
+            BoardMetrics metrics = game.getMetrics();
+            int bucket = Math.min(Math.max(0, metrics.safeRegions() - 1), Result.REGION_BUCKETS - 1);
+
+            while (move != null && game.getState() == Game.GameState.OK) {
+                if (move.flag()) {
+                    game.toggleFlag(move.x(), move.y());
+                } else {
+                    time = System.nanoTime();
+                    game.search(move.x(), move.y());
+                    result.search.record(System.nanoTime() - time);
+                }
+                result.moves++;
+                move = strategy.nextMove(game);
+            }
+
+            result.games++;
+            result.bbbv += metrics.bbbv();
+            result.bucketGames[bucket]++;
+            if (game.getState() == Game.GameState.WIN) {
+                result.wins++;
+                result.bucketWins[bucket]++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Results of simulated games of a single difficulty
+     */
+    public static class Result {
+        //games are bucketed by the extra safe regions of their grid, the last bucket holds all larger amounts
+        public static final int REGION_BUCKETS = 4;
+
+        public final Difficulty difficulty;
+        public final LatencyHistogram randomize = new LatencyHistogram();
+        public final LatencyHistogram search = new LatencyHistogram();
+        public long games;
+        public long wins;
+        public long moves;
+        //repairs and grids that weren't solvable without guessing in time, only used by the no-guess generation
+        public long repairs;
+        public long unsolvable;
+        public long wallNanos;
+        //sum of the 3BV of all grids
+        public long bbbv;
+        //games and wins per amount of safe regions besides the one of the first click, see BoardMetrics
+        public final long[] bucketGames = new long[REGION_BUCKETS];
+        public final long[] bucketWins = new long[REGION_BUCKETS];
+
+        public Result(Difficulty difficulty) {
+            this.difficulty = difficulty;
+        }
+
+        private void merge(Result other) {
+            randomize.merge(other.randomize);
+            search.merge(other.search);
+            games += other.games;
+            wins += other.wins;
+            moves += other.moves;
+            repairs += other.repairs;
+            unsolvable += other.unsolvable;
+            bbbv += other.bbbv;
+            for (int b = 0; b < REGION_BUCKETS; b++) {
+                bucketGames[b] += other.bucketGames[b];
+                bucketWins[b] += other.bucketWins[b];
+            }
+        }
+
+        public double gamesPerSecond() {
+            return wallNanos == 0 ? 0 : games * 1e9 / wallNanos;
+        }
+
+        public double winRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        public double averageBbbv() {
+            return games == 0 ? 0 : (double) bbbv / games;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-6s games=%d games/s=%.1f win=%.2f%% moves=%d 3BV=%.1f%s%n"
+                            + "       regions   %s%n"
+                            + "       randomize %s%n"
+                            + "       search    %s",
+                    difficulty, games, gamesPerSecond(), winRate() * 100, moves, averageBbbv(),
+                    repairs + unsolvable > 0 ? " repairs=" + repairs + " unsolvable=" + unsolvable : "",
+                    formatBuckets(), format(randomize), format(search));
+        }
+
+        /**
+         * @return the share of the games and their win rate per amount of extra safe regions
+         */
+        private String formatBuckets() {
+            StringBuilder s = new StringBuilder();
+            for (int b = 0; b < REGION_BUCKETS; b++) {
+                s.append(String.format("%s%d%s: %.1f%% win=%.2f%%", b > 0 ? " " : "", b,
+                        b == REGION_BUCKETS - 1 ? "+" : "", games == 0 ? 0 : bucketGames[b] * 100.0 / games,
+                        bucketGames[b] == 0 ? 0 : bucketWins[b] * 100.0 / bucketGames[b]));
+            }
+            return s.toString();
+        }
+
+        private static String format(LatencyHistogram h) {
+            return String.format("p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                    h.percentile(50) / 1e3, h.percentile(90) / 1e3, h.percentile(99) / 1e3,
+                    h.percentile(99.9) / 1e3, h.getMax() / 1e3);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        //writes metric snapshots if -Dminesweeper.metrics.file is set
+        MetricsReporter.startConfigured();
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int height = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        List<Difficulty> difficulties = new ArrayList<>();
+        for (int a = 4; a < args.length; a++)
+            difficulties.add(Difficulty.valueOf(args[a].toUpperCase()));
+        if (difficulties.isEmpty())
+            difficulties.addAll(List.of(Difficulty.values()));
+
+        String strategy = System.getProperty("minesweeper.sim.strategy", "solver");
+        Function<SplittableRandom, MoveStrategy> strategyFactory = switch (strategy) {
+            case "solver" -> SolverStrategy::new;
+            case "random" -> RandomStrategy::new;
+            default -> throw new IllegalArgumentException("Unknown strategy " + strategy);
+        };
+
+        boolean noGuess = Boolean.getBoolean("minesweeper.sim.noguess");
+
+        System.out.printf("Simulating %d games per difficulty on a %d*%d grid with %d threads"
+                        + " using the %s strategy%s%n",
+                games, width, height, threads, strategy, noGuess ? " on grids without guesses" : "");
+
+        Simulator simulator = new Simulator(width, height, threads, strategyFactory,
+                noGuess ? new NoGuessGenerator() : null);
+        for (Difficulty difficulty : difficulties)
+            System.out.println(simulator.run(difficulty, games, difficulty.ordinal()));
+    }
+}
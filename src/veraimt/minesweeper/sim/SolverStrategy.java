@@ -0,0 +1,44 @@
+package veraimt.minesweeper.sim;
+
+import veraimt.minesweeper.game.Board;
+import veraimt.minesweeper.game.Game;
+import veraimt.minesweeper.solver.Solver;
+
+import java.util.SplittableRandom;
+
+/**
+ * Takes the certain moves found by the {@link Solver} and guesses the cell with the lowest Bomb probability
+ * if there are none
+ */
+public class SolverStrategy implements MoveStrategy {
+    private final RandomStrategy guesser;
+    private Solver solver;
+
+    public SolverStrategy(SplittableRandom random) {
+        this.guesser = new RandomStrategy(random);
+    }
+
+    @Override
+    public Move firstMove(Game game) {
+        //a new game begins, the solver listens to it from the start
+        solver = new Solver(game);
+        return MoveStrategy.super.firstMove(game);
+    }
+
+    @Override
+    public Move nextMove(Game game) {
+        Board board = game.board;
+        if (solver.solve()) {
+            int safe = solver.nextSafe();
+            if (safe >= 0)
+                return Move.search(board.xOf(safe), board.yOf(safe));
+            int mine = solver.nextMine();
+            if (mine >= 0)
+                return Move.flag(board.xOf(mine), board.yOf(mine));
+        }
+        int guess = solver.bestGuess();
+        if (guess >= 0)
+            return Move.search(board.xOf(guess), board.yOf(guess));
+        return guesser.nextMove(game);
+    }
+}
@@ -0,0 +1,298 @@
+package veraimt.minesweeper.solver;
+
+import veraimt.minesweeper.game.Board;
+import veraimt.minesweeper.game.BoardGenerator;
+import veraimt.minesweeper.game.BombPlacer;
+import veraimt.minesweeper.game.Game;
+import veraimt.minesweeper.metrics.Counter;
+import veraimt.minesweeper.metrics.Histogram;
+import veraimt.minesweeper.metrics.Metrics;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generates Bomb layouts that can be solved from the first click by deduction alone, without guessing.
+ * <p>
+ * A random layout is played by the {@link Solver} from the first click. Whenever the solver is stuck,
+ * the layout is repaired locally instead of being thrown away: the Bombs around the revealed Tile next to the
+ * solver's best guess are moved to other hidden cells, preferably away from all revealed Tiles, so the Tile's
+ * remaining neighbours become deducible. As the moved Bombs change counts that earlier deductions were based on,
+ * a repaired layout is played again from the first click until it is solved without a repair.
+ * <p>
+ * Layouts that can't be repaired, e.g. because no other hidden cell is left, are replaced by a new random layout.
+ * If the time budget runs out, the last layout is used even though it may need a guess.
+ * A {@link veraimt.minesweeper.game.GameLoop} lets the generation run in the background, so clicks aren't blocked
+ * for up to the whole budget. Instances are immutable and can be shared between threads
+ */
+public class NoGuessGenerator implements BombPlacer {
+    //budget of the generation of a single board, can be set with -Dminesweeper.noguess.budget
+    public static final long DEFAULT_BUDGET_MILLIS = Long.getLong("minesweeper.noguess.budget", 2000);
+
+    //random cells checked before scanning for a cell away from the revealed Tiles
+    private static final int RELOCATION_PROBES = 32;
+
+    //Metrics
+    private static final Histogram GENERATION = Metrics.histogram("noGuess.generation", Histogram.NANOS);
+    private static final Counter ATTEMPTS = Metrics.counter("noGuess.attempts");
+    private static final Counter REPAIRS = Metrics.counter("noGuess.repairs");
+    private static final Counter UNSOLVED = Metrics.counter("noGuess.unsolved");
+
+    //background threads of the games' generations
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "NoGuessGenerator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long budgetNanos;
+
+    public NoGuessGenerator() {
+        this(DEFAULT_BUDGET_MILLIS);
+    }
+
+    /**
+     * @param budgetMillis maximum time spent generating a single board in milliseconds
+     */
+    public NoGuessGenerator(long budgetMillis) {
+        if (budgetMillis <= 0)
+            throw new IllegalArgumentException("Budget must be positive: " + budgetMillis);
+        this.budgetNanos = budgetMillis * 1_000_000;
+    }
+
+    /**
+     * Places a layout without guesses on the given blank game
+     */
+    @Override
+    public void place(Game game, int xFirstClick, int yFirstClick) {
+        Result result = generate(game.width, game.height, game.getBombs(), xFirstClick, yFirstClick,
+                ThreadLocalRandom.current());
+        game.placeBombs(result.bombs());
+    }
+
+    /**
+     * Generates a layout without guesses on a background thread
+     */
+    @Override
+    public CompletableFuture<int[]> generate(int width, int height, int bombs, int xFirstClick, int yFirstClick) {
+        return CompletableFuture.supplyAsync(() -> generate(width, height, bombs, xFirstClick, yFirstClick,
+                ThreadLocalRandom.current()).bombs(), EXECUTOR);
+    }
+
+    /**
+     * Generates a layout that can be solved from the given first click without guessing
+     * @param width width of the game grid
+     * @param height height of the game grid
+     * @param bombs amount of Bombs
+     * @param xFirstClick x-coordinate of the first click
+     * @param yFirstClick y-coordinate of the first click
+     * @param random source of randomness, used by the calling thread only
+     * @return the layout with the statistics of its generation
+     * @throws IllegalArgumentException if the Bombs don't fit outside the first click's neighbourhood
+     */
+    public Result generate(int width, int height, int bombs, int xFirstClick, int yFirstClick,
+                           RandomGenerator random) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        int attempts = 0;
+        int repairs = 0;
+        int[] layout;
+        boolean solved = false;
+
+        do {
+            attempts++;
+            Board board = new Board(width, height);
+            BoardGenerator.placeMines(board, bombs, xFirstClick, yFirstClick, random);
+            layout = mines(board, bombs);
+
+            //playing the layout until it is solved without a repair
+            while (true) {
+                Game game = new Game(width, height, bombs);
+                game.placeBombs(layout);
+                int repaired = play(game, xFirstClick, yFirstClick, random, deadline);
+                if (repaired > 0) {
+                    repairs += repaired;
+                    layout = mines(game.board, bombs);
+                    continue;
+                }
+                solved = repaired == 0;
+                break;
+            }
+        } while (!solved && System.nanoTime() < deadline);
+
+        long nanos = System.nanoTime() - start;
+        GENERATION.record(nanos);
+        ATTEMPTS.add(attempts);
+        REPAIRS.add(repairs);
+        if (!solved)
+            UNSOLVED.increment();
+        return new Result(layout, solved, attempts, repairs, nanos);
+    }
+
+    /**
+     * Solves the game from the first click, repairing the layout whenever the solver is stuck
+     * @return amount of repairs, -1 if the solver got stuck and the layout couldn't be repaired in time
+     */
+    private static int play(Game game, int xFirstClick, int yFirstClick, RandomGenerator random, long deadline) {
+        Board board = game.board;
+        Solver solver = new Solver(game);
+        game.search(xFirstClick, yFirstClick);
+
+        int repairs = 0;
+        while (game.getState() == Game.GameState.OK) {
+            if (!solver.solve()) {
+                if (System.nanoTime() >= deadline || !repair(game, solver, random))
+                    return -1;
+                repairs++;
+                continue;
+            }
+
+            int i;
+            while ((i = solver.nextSafe()) >= 0 && game.getState() == Game.GameState.OK)
+                game.search(board.xOf(i), board.yOf(i));
+            while ((i = solver.nextMine()) >= 0 && game.getState() == Game.GameState.OK)
+                game.toggleFlag(board.xOf(i), board.yOf(i));
+        }
+        return repairs;
+    }
+
+    /**
+     * Moves the Bombs around the revealed Tile next to the solver's best guess away from all revealed Tiles,
+     * so the remaining hidden neighbours of the Tile can be deduced to be safe
+     * @return false if there is no such Tile or there is no room for the Bombs
+     */
+    private static boolean repair(Game game, Solver solver, RandomGenerator random) {
+        Board board = game.board;
+        int guess = solver.bestGuess();
+        if (guess < 0)
+            return false;
+
+        int[] neighbours = new int[8];
+        int tile = revealedNeighbour(board, guess, neighbours);
+        if (tile < 0)
+            //the best guess is off the frontier, any Tile of the frontier will do
+            tile = frontierTile(board, neighbours);
+        if (tile < 0)
+            return false;
+
+        int moved = 0;
+        int n = board.neighbours(tile, neighbours);
+        for (int k = 0; k < n; k++) {
+            int i = neighbours[k];
+            if (!board.isMine(i) || board.isVisible(i) || board.hasFlag(i))
+                continue;
+            int target = hiddenCell(board, tile, random);
+            if (target < 0)
+                return false;
+            //Bombs and hidden Tiles stay the same, only the counts around both cells change
+            board.removeMine(i);
+            board.placeMine(target);
+            solver.update(i);
+            solver.update(target);
+            moved++;
+        }
+        return moved > 0;
+    }
+
+    /**
+     * @return a revealed neighbour of the given cell or -1
+     */
+    private static int revealedNeighbour(Board board, int cell, int[] neighbours) {
+        int n = board.neighbours(cell, neighbours);
+        for (int k = 0; k < n; k++) {
+            if (board.isVisible(neighbours[k]) && !board.isMine(neighbours[k]))
+                return neighbours[k];
+        }
+        return -1;
+    }
+
+    /**
+     * @return a revealed Tile with an unflagged hidden neighbour or -1
+     */
+    private static int frontierTile(Board board, int[] neighbours) {
+        for (int i = 0; i < board.size(); i++) {
+            if (board.isVisible(i) || board.hasFlag(i))
+                continue;
+            int tile = revealedNeighbour(board, i, neighbours);
+            if (tile >= 0)
+                return tile;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds a hidden cell without a Bomb the Bombs around the given Tile can be moved to.
+     * Cells that aren't next to a revealed Tile are preferred, as a Bomb placed there doesn't change anything the
+     * solver has seen
+     * @param tile the repaired Tile, its neighbours are excluded
+     * @return index of the cell or -1 if there is none
+     */
+    private static int hiddenCell(Board board, int tile, RandomGenerator random) {
+        for (int probe = 0; probe < RELOCATION_PROBES; probe++) {
+            int i = random.nextInt(board.size());
+            if (isFree(board, i) && isAway(board, i))
+                return i;
+        }
+        //few such cells are left, scanning from a random start
+        int fallback = -1;
+        int start = random.nextInt(board.size());
+        for (int n = 0; n < board.size(); n++) {
+            int i = (start + n) % board.size();
+            if (!isFree(board, i))
+                continue;
+            if (isAway(board, i))
+                return i;
+            if (fallback < 0 && !isNeighbour(board, tile, i))
+                fallback = i;
+        }
+        return fallback;
+    }
+
+    private static boolean isFree(Board board, int i) {
+        return !board.isMine(i) && !board.isVisible(i) && !board.hasFlag(i);
+    }
+
+    private static boolean isNeighbour(Board board, int a, int b) {
+        return Math.abs(board.xOf(a) - board.xOf(b)) <= 1 && Math.abs(board.yOf(a) - board.yOf(b)) <= 1;
+    }
+
+    /**
+     * @return true if no neighbour of the cell is revealed
+     */
+    private static boolean isAway(Board board, int i) {
+        int x = board.xOf(i);
+        int y = board.yOf(i);
+        for (int y1 = Math.max(0, y-1); y1 <= Math.min(board.height-1, y+1); y1++) {
+            for (int x1 = Math.max(0, x-1); x1 <= Math.min(board.width-1, x+1); x1++) {
+                if (board.isVisible(board.index(x1, y1)))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] mines(Board board, int bombs) {
+        int[] mines = new int[bombs];
+        int n = 0;
+        for (int i = 0; i < board.size(); i++) {
+            if (board.isMine(i))
+                mines[n++] = i;
+        }
+        return mines;
+    }
+
+    /**
+     * A generated layout
+     * @param bombs indices of the Bombs
+     * @param solvable true if the layout can be solved without guessing,
+     *                 false if the time budget ran out before such a layout was found
+     * @param attempts amount of random layouts that were generated
+     * @param repairs amount of local repairs of all attempts
+     * @param nanos wall time of the generation in nanoseconds
+     */
+    public record Result(int[] bombs, boolean solvable, int attempts, int repairs, long nanos) {
+    }
+}
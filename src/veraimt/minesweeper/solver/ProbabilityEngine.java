@@ -0,0 +1,505 @@
+package veraimt.minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the Bomb probability of every frontier cell.
+ * <p>
+ * The frontier is split into independent components (cells connected through shared constraints).
+ * Every component is enumerated on its own, counting its configurations per amount of Bombs.
+ * The components are then combined with the unknown cells off the frontier, which take the remaining Bombs
+ * in C(interior, remaining) ways.
+ * <p>
+ * Component results are cached by their constraints. A component whose constraints didn't change since the last
+ * computation is not enumerated again, results of components that changed or vanished are dropped.
+ * <p>
+ * The components and their keys are rebuilt from all active constraints on every call instead of tracking the
+ * components touched by tile updates. This is a deliberate simplification: the rebuild is linear in the size of
+ * the frontier and only runs when the rules are stuck, while the enumeration it saves is exponential
+ */
+class ProbabilityEngine {
+    //Limits of the enumeration of a single component
+    private static final int MAX_COMPONENT_CELLS = 48;
+    private static final long MAX_NODES = 1 << 22;
+
+    //Knowledge about a cell, same values as in the Solver
+    static final byte UNKNOWN = 0;
+    static final byte SAFE = 1;
+    static final byte MINE = 2;
+
+    private Map<Key, Component> cache = new HashMap<>();
+    private long cacheHits;
+    private long cacheMisses;
+
+    /**
+     * Computes the probabilities of the given frontier
+     * @param constraintIndices board indices of the constraints (revealed Tiles)
+     * @param constraintCells board indices of the unknown cells of every constraint
+     * @param constraintMines Bombs left to be found around every constraint
+     * @param minesLeft Bombs left on the whole board
+     * @param unknown amount of unknown cells on the whole board, including the frontier
+     * @return the probabilities and certain cells
+     */
+    Result compute(int[] constraintIndices, int[][] constraintCells, int[] constraintMines, int minesLeft, int unknown) {
+        //local ids of the frontier cells
+        Map<Integer, Integer> ids = new HashMap<>();
+        List<Integer> cells = new ArrayList<>();
+        for (int[] c : constraintCells)
+            for (int cell : c)
+                if (ids.putIfAbsent(cell, cells.size()) == null)
+                    cells.add(cell);
+
+        //connecting cells sharing a constraint
+        int[] parent = new int[cells.size()];
+        for (int v = 0; v < parent.length; v++)
+            parent[v] = v;
+        for (int[] c : constraintCells)
+            for (int j = 1; j < c.length; j++)
+                union(parent, ids.get(c[0]), ids.get(c[j]));
+
+        //grouping the constraints by component
+        Map<Integer, List<Integer>> groups = new HashMap<>();
+        for (int k = 0; k < constraintCells.length; k++) {
+            if (constraintCells[k].length == 0)
+                continue;
+            int root = find(parent, ids.get(constraintCells[k][0]));
+            groups.computeIfAbsent(root, r -> new ArrayList<>()).add(k);
+        }
+
+        Map<Key, Component> used = new HashMap<>();
+        List<Component> components = new ArrayList<>();
+        List<Component> oversized = new ArrayList<>();
+        int oversizedCells = 0;
+        for (List<Integer> group : groups.values()) {
+            Key key = key(group, constraintIndices, constraintCells, constraintMines);
+            Component component = cache.get(key);
+            if (component != null) {
+                cacheHits++;
+            } else {
+                cacheMisses++;
+                component = enumerate(group, constraintCells, constraintMines);
+            }
+            used.put(key, component);
+            if (component.ways == null) {
+                oversized.add(component);
+                oversizedCells += component.cells.length;
+            } else {
+                components.add(component);
+            }
+        }
+        //results of changed components are dropped
+        cache = used;
+
+        return combine(components, oversized, minesLeft, unknown - cells.size() + oversizedCells);
+    }
+
+    long getCacheHits() {
+        return cacheHits;
+    }
+
+    long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    //Components
+
+    /**
+     * Creates the cache key of a component from its constraints (index, Bombs left, sorted unknown cells)
+     */
+    private static Key key(List<Integer> group, int[] indices, int[][] cells, int[] mines) {
+        int[][] parts = new int[group.size()][];
+        for (int g = 0; g < group.size(); g++) {
+            int k = group.get(g);
+            int[] part = new int[cells[k].length + 2];
+            part[0] = indices[k];
+            part[1] = mines[k];
+            System.arraycopy(cells[k], 0, part, 2, cells[k].length);
+            Arrays.sort(part, 2, part.length);
+            parts[g] = part;
+        }
+        Arrays.sort(parts, (a, b) -> Integer.compare(a[0], b[0]));
+
+        int length = 0;
+        for (int[] part : parts)
+            length += part.length + 1;
+        int[] data = new int[length];
+        int n = 0;
+        for (int[] part : parts) {
+            data[n++] = part.length;
+            System.arraycopy(part, 0, data, n, part.length);
+            n += part.length;
+        }
+        return new Key(data);
+    }
+
+    /**
+     * Enumerates all Bomb configurations of a component
+     */
+    private static Component enumerate(List<Integer> group, int[][] constraintCells, int[] constraintMines) {
+        //local ids inside the component
+        Map<Integer, Integer> ids = new HashMap<>();
+        List<Integer> cells = new ArrayList<>();
+        int[][] constraints = new int[group.size()][];
+        int[] mines = new int[group.size()];
+        for (int g = 0; g < group.size(); g++) {
+            int k = group.get(g);
+            constraints[g] = new int[constraintCells[k].length];
+            for (int j = 0; j < constraintCells[k].length; j++) {
+                int cell = constraintCells[k][j];
+                Integer id = ids.putIfAbsent(cell, cells.size());
+                if (id == null) {
+                    id = cells.size();
+                    cells.add(cell);
+                }
+                constraints[g][j] = id;
+            }
+            mines[g] = constraintMines[k];
+        }
+
+        Component component = new Component(cells.stream().mapToInt(Integer::intValue).toArray());
+        if (cells.size() > MAX_COMPONENT_CELLS)
+            return component;
+
+        //not limited by the Bombs left, so the result stays valid when only the amount of Bombs left changes
+        Enumeration e = new Enumeration(cells.size(), constraints, mines);
+        if (!e.run())
+            return component;
+
+        component.ways = e.ways;
+        component.cellWays = e.cellWays;
+        return component;
+    }
+
+    //Combination
+
+    /**
+     * Combines the enumerated components, cells of oversized components are treated like cells off the frontier
+     */
+    private static Result combine(List<Component> components, List<Component> oversized, int minesLeft, int interior) {
+        int n = components.size();
+        //interior[m]: relative amount of ways to place m Bombs off the frontier
+        double[] interiorWays = binomials(interior, minesLeft);
+
+        //prefix[c]: distribution of the Bombs in components 0..c-1, suffix[c]: in components c..n-1
+        double[][] prefix = new double[n + 1][];
+        double[][] suffix = new double[n + 1][];
+        boolean[][] prefixFeasible = new boolean[n + 1][];
+        boolean[][] suffixFeasible = new boolean[n + 1][];
+        prefix[0] = new double[]{1};
+        prefixFeasible[0] = new boolean[]{true};
+        suffix[n] = new double[]{1};
+        suffixFeasible[n] = new boolean[]{true};
+        for (int c = 0; c < n; c++) {
+            prefix[c + 1] = convolve(prefix[c], components.get(c).ways);
+            prefixFeasible[c + 1] = convolve(prefixFeasible[c], components.get(c).ways);
+        }
+        for (int c = n - 1; c >= 0; c--) {
+            suffix[c] = convolve(suffix[c + 1], components.get(c).ways);
+            suffixFeasible[c] = convolve(suffixFeasible[c + 1], components.get(c).ways);
+        }
+
+        Result result = new Result();
+        int total = 0;
+        for (Component component : components)
+            total += component.cells.length;
+        for (Component component : oversized)
+            total += component.cells.length;
+        result.cells = new int[total];
+        result.probability = new double[total];
+        result.certain = new byte[total];
+
+        //total weight and distribution of the interior Bombs
+        double z = 0;
+        double interiorMines = 0;
+        boolean interiorSafe = true;
+        boolean interiorMine = interior > 0;
+        double[] all = prefix[n];
+        boolean[] allFeasible = prefixFeasible[n];
+        for (int k = 0; k < all.length; k++) {
+            int m = minesLeft - k;
+            if (m < 0 || m > interior)
+                continue;
+            double w = all[k] * interiorWays[m];
+            z += w;
+            interiorMines += w * m;
+            if (allFeasible[k]) {
+                interiorSafe &= m == 0;
+                interiorMine &= m == interior;
+            }
+        }
+
+        int r = 0;
+        for (int c = 0; c < n; c++) {
+            Component component = components.get(c);
+            double[] others = convolve(prefix[c], suffix[c + 1]);
+            boolean[] othersFeasible = convolve(prefixFeasible[c], suffixFeasible[c + 1]);
+
+            //weight and feasibility of the component holding k Bombs
+            double[] weight = new double[component.ways.length];
+            boolean[] feasible = new boolean[component.ways.length];
+            for (int k = 0; k < weight.length; k++) {
+                if (component.ways[k] == 0)
+                    continue;
+                for (int o = 0; o < others.length; o++) {
+                    int m = minesLeft - k - o;
+                    if (m < 0 || m > interior)
+                        continue;
+                    weight[k] += others[o] * interiorWays[m];
+                    feasible[k] |= othersFeasible[o];
+                }
+            }
+
+            //the distributions are scaled independently, so every component is normalized by its own total
+            double componentTotal = 0;
+            for (int k = 0; k < weight.length; k++)
+                componentTotal += component.ways[k] * weight[k];
+
+            for (int v = 0; v < component.cells.length; v++) {
+                double mines = 0;
+                boolean safe = true;
+                boolean mine = true;
+                for (int k = 0; k < weight.length; k++) {
+                    mines += component.cellWays[v][k] * weight[k];
+                    if (feasible[k]) {
+                        safe &= component.cellWays[v][k] == 0;
+                        mine &= component.cellWays[v][k] == component.ways[k];
+                    }
+                }
+                result.cells[r] = component.cells[v];
+                result.probability[r] = componentTotal > 0 ? mines / componentTotal : 0;
+                result.certain[r] = safe ? SAFE : mine ? MINE : UNKNOWN;
+                r++;
+            }
+        }
+
+        //no exact results for cells of oversized components, they are treated like the interior
+        double density = interior > 0 && z > 0 ? interiorMines / z / interior : 0;
+        for (Component component : oversized) {
+            for (int cell : component.cells) {
+                result.cells[r] = cell;
+                result.probability[r] = density;
+                r++;
+            }
+        }
+
+        result.exact = oversized.isEmpty();
+        result.interiorProbability = density;
+        result.interiorCertain = z == 0 || !result.exact || interior == 0 ? UNKNOWN
+                : interiorSafe ? SAFE : interiorMine ? MINE : UNKNOWN;
+        return result;
+    }
+
+    /**
+     * Returns C(n, m) for m = 0..max, scaled so that the largest value is 1
+     */
+    private static double[] binomials(int n, int max) {
+        double[] log = new double[Math.max(0, max) + 1];
+        double highest = 0;
+        //log C(n, m) = log C(n, m-1) + log(n-m+1) - log(m)
+        for (int m = 1; m < log.length; m++) {
+            log[m] = m > n ? Double.NEGATIVE_INFINITY : log[m - 1] + Math.log(n - m + 1) - Math.log(m);
+            highest = Math.max(highest, log[m]);
+        }
+        double[] result = new double[log.length];
+        for (int m = 0; m < log.length; m++)
+            result[m] = Math.exp(log[m] - highest);
+        return result;
+    }
+
+    /**
+     * Convolution of two distributions, scaled so that the largest value is 1
+     */
+    private static double[] convolve(double[] a, double[] b) {
+        double[] result = new double[a.length + b.length - 1];
+        double max = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0)
+                continue;
+            for (int j = 0; j < b.length; j++)
+                result[i + j] += a[i] * b[j];
+        }
+        for (double v : result)
+            max = Math.max(max, v);
+        if (max > 0)
+            for (int i = 0; i < result.length; i++)
+                result[i] /= max;
+        return result;
+    }
+
+    private static double[] convolve(double[] a, long[] b) {
+        double[] d = new double[b.length];
+        for (int i = 0; i < b.length; i++)
+            d[i] = b[i];
+        return convolve(a, d);
+    }
+
+    private static boolean[] convolve(boolean[] a, boolean[] b) {
+        boolean[] result = new boolean[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++)
+            if (a[i])
+                for (int j = 0; j < b.length; j++)
+                    result[i + j] |= b[j];
+        return result;
+    }
+
+    private static boolean[] convolve(boolean[] a, long[] b) {
+        boolean[] d = new boolean[b.length];
+        for (int i = 0; i < b.length; i++)
+            d[i] = b[i] > 0;
+        return convolve(a, d);
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        parent[find(parent, a)] = find(parent, b);
+    }
+
+    /**
+     * Probabilities of the frontier cells
+     */
+    static final class Result {
+        //board indices, Bomb probabilities and certainty of the frontier cells
+        int[] cells;
+        double[] probability;
+        byte[] certain;
+        //Bomb probability and certainty of every unknown cell off the frontier
+        double interiorProbability;
+        byte interiorCertain;
+        //false if a component was too large to be enumerated
+        boolean exact;
+    }
+
+    /**
+     * Configurations of a component, ways is null if the component was too large
+     */
+    private static final class Component {
+        private final int[] cells;
+        //ways[k]: configurations with k Bombs, cellWays[v][k]: those where cell v is a Bomb
+        private long[] ways;
+        private long[][] cellWays;
+
+        private Component(int[] cells) {
+            this.cells = cells;
+        }
+    }
+
+    private record Key(int[] data) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Arrays.equals(data, key.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(data);
+        }
+    }
+
+    /**
+     * Backtracking enumeration of a component, counting the configurations per amount of Bombs
+     */
+    private static final class Enumeration {
+        private final int[][] constraints;
+        private final int[] mines;
+        private final int[] free;
+        private final int[][] cellConstraints;
+
+        private final boolean[] assignment;
+        private long nodes;
+
+        private final long[] ways;
+        private final long[][] cellWays;
+
+        private Enumeration(int cells, int[][] constraints, int[] mines) {
+            this.constraints = constraints;
+            this.mines = mines.clone();
+            this.free = new int[constraints.length];
+            for (int k = 0; k < constraints.length; k++)
+                free[k] = constraints[k].length;
+
+            assignment = new boolean[cells];
+            ways = new long[cells + 1];
+            cellWays = new long[cells][cells + 1];
+
+            //constraints per cell
+            int[] counts = new int[cells];
+            for (int[] c : constraints)
+                for (int v : c)
+                    counts[v]++;
+            cellConstraints = new int[cells][];
+            for (int v = 0; v < cells; v++)
+                cellConstraints[v] = new int[counts[v]];
+            for (int k = 0; k < constraints.length; k++)
+                for (int v : constraints[k])
+                    cellConstraints[v][--counts[v]] = k;
+        }
+
+        /**
+         * @return false if the enumeration was aborted
+         */
+        private boolean run() {
+            return search(0, 0);
+        }
+
+        private boolean search(int v, int placed) {
+            if (++nodes > MAX_NODES)
+                return false;
+
+            if (v == assignment.length) {
+                ways[placed]++;
+                for (int c = 0; c < assignment.length; c++) {
+                    if (assignment[c])
+                        cellWays[c][placed]++;
+                }
+                return true;
+            }
+
+            //trying safe first, then Bomb
+            for (int value = 0; value <= 1; value++) {
+                boolean mine = value == 1;
+                boolean ok = assign(v, mine);
+                assignment[v] = mine;
+                boolean completed = !ok || search(v + 1, placed + value);
+                unassign(v, mine);
+                if (!completed)
+                    return false;
+            }
+            assignment[v] = false;
+            return true;
+        }
+
+        /**
+         * Assigns the cell and checks if all its constraints are still satisfiable
+         */
+        private boolean assign(int v, boolean mine) {
+            boolean ok = true;
+            for (int k : cellConstraints[v]) {
+                free[k]--;
+                if (mine)
+                    mines[k]--;
+                if (mines[k] < 0 || mines[k] > free[k])
+                    ok = false;
+            }
+            return ok;
+        }
+
+        private void unassign(int v, boolean mine) {
+            for (int k : cellConstraints[v]) {
+                free[k]++;
+                if (mine)
+                    mines[k]++;
+            }
+        }
+    }
+}
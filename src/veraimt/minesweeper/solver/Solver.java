@@ -0,0 +1,435 @@
+package veraimt.minesweeper.solver;
+
+import veraimt.minesweeper.game.Board;
+import veraimt.minesweeper.game.CellList;
+import veraimt.minesweeper.game.Game;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Deduces certain moves of a {@link Game} from the state visible to a player (revealed counts and Flags).
+ * <p>
+ * Every revealed Tile with a count is a constraint on its hidden neighbours. Constraints are only re-evaluated
+ * when a Tile in their neighbourhood changed, which the solver learns from the tile updates of the game.
+ * Deductions are made with
+ * <ol>
+ *     <li>single constraints (all hidden neighbours are safe / are Bombs)</li>
+ *     <li>pairs of overlapping constraints</li>
+ *     <li>exact enumeration of the independent frontier components, weighted with the amount of Bombs left,
+ *     when the rules are stuck (see {@link ProbabilityEngine})</li>
+ * </ol>
+ * If no certain move exists, {@link #bestGuess()} returns the cell with the lowest Bomb probability.
+ * Flags are treated as Bombs. The solver is not thread-safe, it has to be used on the thread modifying the game
+ */
+public class Solver {
+    //Knowledge about a cell
+    private static final byte UNKNOWN = ProbabilityEngine.UNKNOWN;
+    private static final byte SAFE = ProbabilityEngine.SAFE;
+    private static final byte MINE = ProbabilityEngine.MINE;
+
+    private final Game game;
+    private final Board board;
+
+    //deduced knowledge per cell
+    private final byte[] known;
+
+    //revealed Tiles whose neighbourhood changed since they were last evaluated
+    private final CellList dirty = new CellList();
+    private final BitSet queued = new BitSet();
+    //revealed Tiles with unknown neighbours
+    private final BitSet active = new BitSet();
+
+    //deduced moves not taken yet
+    private final CellList safeCells = new CellList();
+    private final CellList mineCells = new CellList();
+
+    //probabilities of the frontier, computed when the rules are stuck
+    private final ProbabilityEngine engine = new ProbabilityEngine();
+    private ProbabilityEngine.Result probabilities;
+    private double guessProbability;
+
+    //scratch arrays for neighbourhoods
+    private final int[] neighbours = new int[8];
+    private final int[] constraintNeighbours = new int[8];
+    private final int[] unknownA = new int[8];
+    private final int[] unknownB = new int[8];
+
+    /**
+     * Creates a solver for the given game and registers it as tile update listener
+     * @param game game to be solved
+     */
+    public Solver(Game game) {
+        this.game = game;
+        this.board = game.board;
+        this.known = new byte[board.size()];
+
+        game.addTileUpdateListener(event -> {
+            for (int n = 0; n < event.size(); n++)
+                update(event.get(n));
+        });
+
+        //picking up Tiles revealed before the solver was created
+        for (int i = 0; i < board.size(); i++) {
+            if (board.isVisible(i))
+                markDirty(i);
+        }
+    }
+
+    /**
+     * Marks the constraints around the given cell for re-evaluation
+     * @param index index of the changed cell
+     */
+    public void update(int index) {
+        markDirty(index);
+        int n = board.neighbours(index, neighbours);
+        for (int k = 0; k < n; k++)
+            markDirty(neighbours[k]);
+    }
+
+    private void markDirty(int index) {
+        if (!board.isVisible(index) || board.isMine(index) || queued.get(index))
+            return;
+        queued.set(index);
+        dirty.add(index);
+    }
+
+    /**
+     * Deduces new certain moves, if no moves are pending
+     * @return true if a certain move is available
+     */
+    public boolean solve() {
+        if (hasMoves())
+            return true;
+
+        propagate();
+        if (hasMoves())
+            return true;
+
+        enumerate();
+        return hasMoves();
+    }
+
+    /**
+     * @return true if a deduced move has not been taken yet
+     */
+    public boolean hasMoves() {
+        prune(safeCells, true);
+        prune(mineCells, false);
+        return !safeCells.isEmpty() || !mineCells.isEmpty();
+    }
+
+    /**
+     * Removes moves that are already applied from the end of the given list
+     */
+    private void prune(CellList cells, boolean safe) {
+        while (!cells.isEmpty()) {
+            int i = cells.get(cells.size() - 1);
+            if (board.isVisible(i) || (!safe && board.hasFlag(i)))
+                cells.removeLast();
+            else
+                break;
+        }
+    }
+
+    /**
+     * Returns the index of a hidden Tile known to be safe
+     * @return the index or -1 if there is none
+     */
+    public int nextSafe() {
+        prune(safeCells, true);
+        return safeCells.isEmpty() ? -1 : safeCells.removeLast();
+    }
+
+    /**
+     * Returns the index of an unflagged Tile known to be a Bomb
+     * @return the index or -1 if there is none
+     */
+    public int nextMine() {
+        prune(mineCells, false);
+        return mineCells.isEmpty() ? -1 : mineCells.removeLast();
+    }
+
+    //Cell knowledge
+
+    private boolean isUnknown(int i) {
+        return known[i] == UNKNOWN && !board.isVisible(i) && !board.hasFlag(i);
+    }
+
+    private boolean isKnownMine(int i) {
+        return known[i] == MINE || (known[i] == UNKNOWN && !board.isVisible(i) && board.hasFlag(i));
+    }
+
+    private void deduce(int i, byte value) {
+        if (known[i] != UNKNOWN)
+            return;
+        known[i] = value;
+        if (value == SAFE)
+            safeCells.add(i);
+        else
+            mineCells.add(i);
+        //the unknown neighbours of the surrounding constraints changed
+        int n = board.neighbours(i, neighbours);
+        for (int k = 0; k < n; k++)
+            markDirty(neighbours[k]);
+    }
+
+    /**
+     * Collects the unknown neighbours of a constraint
+     * @param c index of the revealed Tile
+     * @param out array receiving the unknown neighbours
+     * @return amount of unknown neighbours in the lower 4 bits, Bombs left to be found around c in the upper bits
+     */
+    private int evaluate(int c, int[] out) {
+        int count = board.neighbours(c, constraintNeighbours);
+        int unknown = 0;
+        int mines = 0;
+        for (int k = 0; k < count; k++) {
+            int i = constraintNeighbours[k];
+            if (isUnknown(i))
+                out[unknown++] = i;
+            else if (isKnownMine(i))
+                mines++;
+        }
+        return (board.getCount(c) - mines) << 4 | unknown;
+    }
+
+    //Rules
+
+    /**
+     * Applies the single and pair rules to all dirty constraints until no more deductions can be made
+     */
+    private void propagate() {
+        while (!dirty.isEmpty()) {
+            int a = dirty.removeLast();
+            queued.clear(a);
+
+            int evalA = evaluate(a, unknownA);
+            int sizeA = evalA & 0xF;
+            int minesA = evalA >> 4;
+            if (sizeA == 0) {
+                active.clear(a);
+                continue;
+            }
+            active.set(a);
+
+            //single constraint
+            if (minesA == 0 || minesA == sizeA) {
+                byte value = minesA == 0 ? SAFE : MINE;
+                for (int k = 0; k < sizeA; k++)
+                    deduce(unknownA[k], value);
+                active.clear(a);
+                continue;
+            }
+
+            //pairs with constraints sharing at least one neighbour
+            pairs(a, sizeA, minesA);
+        }
+    }
+
+    /**
+     * Compares the constraint a with all active constraints in its 5x5 neighbourhood
+     */
+    private void pairs(int a, int sizeA, int minesA) {
+        int ax = board.xOf(a);
+        int ay = board.yOf(a);
+        for (int y = Math.max(0, ay-2); y <= Math.min(board.height-1, ay+2); y++) {
+            for (int x = Math.max(0, ax-2); x <= Math.min(board.width-1, ax+2); x++) {
+                int b = board.index(x, y);
+                if (b == a || !board.isVisible(b) || board.isMine(b))
+                    continue;
+
+                int evalB = evaluate(b, unknownB);
+                int sizeB = evalB & 0xF;
+                int minesB = evalB >> 4;
+                if (sizeB == 0)
+                    continue;
+
+                int onlyA = countMissing(unknownA, sizeA, unknownB, sizeB);
+                int onlyB = countMissing(unknownB, sizeB, unknownA, sizeA);
+                if (onlyA == sizeA)
+                    //no shared unknown neighbours
+                    continue;
+
+                //the shared cells hold at least minesA - onlyA Bombs, if that's all of b's Bombs:
+                //a's exclusive cells are Bombs and b's exclusive cells are safe
+                int deduced = 0;
+                if (minesA - onlyA == minesB) {
+                    deduced += apply(unknownA, sizeA, unknownB, sizeB, MINE);
+                    deduced += apply(unknownB, sizeB, unknownA, sizeA, SAFE);
+                } else if (minesB - onlyB == minesA) {
+                    deduced += apply(unknownB, sizeB, unknownA, sizeA, MINE);
+                    deduced += apply(unknownA, sizeA, unknownB, sizeB, SAFE);
+                }
+                //a changed, it is evaluated again later
+                if (deduced > 0)
+                    return;
+            }
+        }
+    }
+
+    /**
+     * Counts the cells of a not contained in b
+     */
+    private static int countMissing(int[] a, int sizeA, int[] b, int sizeB) {
+        int missing = 0;
+        for (int i = 0; i < sizeA; i++) {
+            if (!contains(b, sizeB, a[i]))
+                missing++;
+        }
+        return missing;
+    }
+
+    /**
+     * Deduces the given value for all cells of a not contained in b
+     * @return amount of cells deduced
+     */
+    private int apply(int[] a, int sizeA, int[] b, int sizeB, byte value) {
+        int deduced = 0;
+        for (int i = 0; i < sizeA; i++) {
+            if (!contains(b, sizeB, a[i]) && known[a[i]] == UNKNOWN) {
+                deduce(a[i], value);
+                deduced++;
+            }
+        }
+        return deduced;
+    }
+
+    private static boolean contains(int[] cells, int size, int cell) {
+        for (int i = 0; i < size; i++) {
+            if (cells[i] == cell)
+                return true;
+        }
+        return false;
+    }
+
+    //Probabilities
+
+    /**
+     * Computes the Bomb probabilities of the frontier (unknown cells next to active constraints)
+     * and deduces the cells that are safe / Bombs in all valid configurations.
+     * The cells off the frontier share the probability of the Bombs left after the frontier
+     */
+    private void computeProbabilities() {
+        int count = active.cardinality();
+        int[] indices = new int[count];
+        int[][] cells = new int[count][];
+        int[] mines = new int[count];
+        int k = 0;
+        for (int c = active.nextSetBit(0); c >= 0; c = active.nextSetBit(c + 1)) {
+            int eval = evaluate(c, unknownA);
+            indices[k] = c;
+            cells[k] = Arrays.copyOf(unknownA, eval & 0xF);
+            mines[k] = eval >> 4;
+            k++;
+        }
+
+        //Bombs left and unknown cells
+        //all Bombs stay hidden while the game is running, so hidden Tiles + Bombs is the amount of hidden cells
+        int minesLeft = game.getBombs() - game.getPlacedFlags() - pending(mineCells);
+        int unknown = game.getHiddenTiles() + game.getBombs() - game.getPlacedFlags()
+                - pending(safeCells) - pending(mineCells);
+
+        probabilities = engine.compute(indices, cells, mines, minesLeft, unknown);
+    }
+
+    /**
+     * Deduces the cells that are certain according to the last computed probabilities
+     */
+    private void enumerate() {
+        computeProbabilities();
+        ProbabilityEngine.Result result = probabilities;
+
+        for (int r = 0; r < result.cells.length; r++) {
+            if (result.certain[r] != UNKNOWN)
+                deduce(result.cells[r], result.certain[r]);
+        }
+
+        //the cells off the frontier are certain if all solutions leave none / only Bombs for them
+        if (result.interiorCertain != UNKNOWN) {
+            BitSet frontier = new BitSet();
+            for (int cell : result.cells)
+                frontier.set(cell);
+            for (int i = 0; i < board.size(); i++) {
+                if (isUnknown(i) && !frontier.get(i))
+                    deduce(i, result.interiorCertain);
+            }
+        }
+        propagate();
+    }
+
+    /**
+     * Returns the unknown cell with the lowest Bomb probability, meant to be used if there are no certain moves
+     * @return index of the cell or -1 if there is no unknown cell
+     */
+    public int bestGuess() {
+        //a certain safe cell is always the best guess
+        prune(safeCells, true);
+        if (!safeCells.isEmpty()) {
+            guessProbability = 0;
+            return safeCells.get(safeCells.size() - 1);
+        }
+
+        computeProbabilities();
+        ProbabilityEngine.Result result = probabilities;
+
+        int best = -1;
+        double bestProbability = 2;
+        for (int r = 0; r < result.cells.length; r++) {
+            if (result.probability[r] < bestProbability && isUnknown(result.cells[r])) {
+                best = result.cells[r];
+                bestProbability = result.probability[r];
+            }
+        }
+
+        //a cell off the frontier might be the better guess
+        if (best < 0 || result.interiorProbability < bestProbability) {
+            BitSet frontier = new BitSet();
+            for (int cell : result.cells)
+                frontier.set(cell);
+            for (int i = 0; i < board.size(); i++) {
+                if (isUnknown(i) && !frontier.get(i)) {
+                    best = i;
+                    bestProbability = result.interiorProbability;
+                    break;
+                }
+            }
+        }
+        guessProbability = best < 0 ? 0 : bestProbability;
+        return best;
+    }
+
+    /**
+     * @return Bomb probability of the cell last returned by {@link #bestGuess()}
+     */
+    public double getGuessProbability() {
+        return guessProbability;
+    }
+
+    /**
+     * @return amount of components whose probabilities were reused from the cache
+     */
+    public long getCacheHits() {
+        return engine.getCacheHits();
+    }
+
+    /**
+     * @return amount of components that had to be enumerated
+     */
+    public long getCacheMisses() {
+        return engine.getCacheMisses();
+    }
+
+    /**
+     * Counts the pending moves on Tiles that are still hidden and unflagged
+     */
+    private int pending(CellList cells) {
+        int count = 0;
+        for (int k = 0; k < cells.size(); k++) {
+            int i = cells.get(k);
+            if (!board.isVisible(i) && !board.hasFlag(i))
+                count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,199 @@
+package veraimt.minesweeper.ui;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * Persistent image of the visible part of the game grid, so painting is a single image copy.
+ * <p>
+ * Changed cells are marked with {@link #markDirty(int, int, int, int)} from any thread and redrawn into the buffer
+ * on the next {@link #paint(Graphics, GraphicsConfiguration, Rectangle, Zoom)}. When the view is scrolled, the part
+ * still visible is moved inside the buffer and only the uncovered strips are drawn. An accelerated
+ * {@link VolatileImage} is used if a {@link GraphicsConfiguration} is available, otherwise a {@link BufferedImage}.
+ * If the contents of the VolatileImage get lost, the whole view is redrawn
+ */
+public class BackBuffer {
+    private final BoardRenderer renderer;
+    //size of the grid in cells
+    private final int width;
+    private final int height;
+
+    private VolatileImage volatileImage;
+    private BufferedImage bufferedImage;
+
+    //pixel area of the grid and zoom the buffer currently contains, null if nothing was drawn yet
+    private Rectangle view;
+    private Zoom zoom;
+
+    //cells changed since the last paint, inclusive, empty if maxX < minX
+    private int minX;
+    private int minY;
+    private int maxX = -1;
+    private int maxY = -1;
+
+    /**
+     * @param renderer renderer drawing the cells
+     * @param width width of the grid in cells
+     * @param height height of the grid in cells
+     */
+    public BackBuffer(BoardRenderer renderer, int width, int height) {
+        this.renderer = renderer;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Marks the given area of the grid to be redrawn on the next paint
+     * @param xStart Start x-coordinate
+     * @param yStart Start y-coordinate
+     * @param xEnd End x-coordinate
+     * @param yEnd End y-coordinate
+     */
+    public synchronized void markDirty(int xStart, int yStart, int xEnd, int yEnd) {
+        if (maxX < minX) {
+            minX = xStart;
+            minY = yStart;
+            maxX = xEnd;
+            maxY = yEnd;
+            return;
+        }
+        minX = Math.min(minX, xStart);
+        minY = Math.min(minY, yStart);
+        maxX = Math.max(maxX, xEnd);
+        maxY = Math.max(maxY, yEnd);
+    }
+
+    /**
+     * Brings the buffer up to date for the visible area and copies it with the given Graphics
+     * @param g Graphics used for drawing, in pixel-coordinates of the whole grid
+     * @param config configuration to create an accelerated buffer for, null for an unaccelerated one
+     * @param visible visible pixel area of the grid
+     * @param zoom the zoom to draw at
+     */
+    public void paint(Graphics g, GraphicsConfiguration config, Rectangle visible, Zoom zoom) {
+        Rectangle newView = visible.intersection(
+                new Rectangle(0, 0, zoom.gridPixels(width), zoom.gridPixels(height)));
+        if (newView.isEmpty())
+            return;
+
+        if (config == null || GraphicsEnvironment.isHeadless()) {
+            if (bufferedImage == null
+                    || bufferedImage.getWidth() < newView.width || bufferedImage.getHeight() < newView.height) {
+                bufferedImage = new BufferedImage(newView.width, newView.height, BufferedImage.TYPE_INT_RGB);
+                view = null;
+            }
+            redraw(bufferedImage, newView, zoom);
+            copy(g, bufferedImage);
+            return;
+        }
+
+        do {
+            int status = volatileImage == null
+                    ? VolatileImage.IMAGE_INCOMPATIBLE
+                    : volatileImage.validate(config);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE
+                    || volatileImage.getWidth() < newView.width || volatileImage.getHeight() < newView.height) {
+                if (volatileImage != null)
+                    volatileImage.flush();
+                volatileImage = config.createCompatibleVolatileImage(newView.width, newView.height);
+                view = null;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                //a restored buffer has no valid contents
+                view = null;
+            }
+            redraw(volatileImage, newView, zoom);
+            copy(g, volatileImage);
+        } while (volatileImage.contentsLost());
+    }
+
+    private void copy(Graphics g, Image image) {
+        g.drawImage(image, view.x, view.y, view.x + view.width, view.y + view.height,
+                0, 0, view.width, view.height, null);
+    }
+
+    /**
+     * Brings the given image up to date for the new view
+     */
+    private void redraw(Image image, Rectangle newView, Zoom newZoom) {
+        int xStart, yStart, xEnd, yEnd;
+        synchronized (this) {
+            xStart = minX;
+            yStart = minY;
+            xEnd = maxX;
+            yEnd = maxY;
+            maxX = -1;
+            maxY = -1;
+        }
+
+        Graphics g = image.getGraphics();
+        try {
+            if (view == null || !newZoom.equals(zoom)) {
+                drawView(g, newView, newView, newZoom);
+            } else if (!view.equals(newView)) {
+                scroll(g, newView);
+            }
+
+            if (xEnd >= xStart) {
+                //pixel area of the changed cells
+                Rectangle dirty = new Rectangle(newZoom.toPixel(xStart), newZoom.toPixel(yStart), 0, 0);
+                dirty.add(new Point(newZoom.toPixelEnd(xEnd), newZoom.toPixelEnd(yEnd)));
+                drawView(g, newView, dirty.intersection(newView), newZoom);
+            }
+        } finally {
+            g.dispose();
+        }
+        view = newView;
+        zoom = newZoom;
+    }
+
+    /**
+     * Moves the still visible part of the old view to its new position and draws the uncovered parts
+     */
+    private void scroll(Graphics g, Rectangle newView) {
+        Rectangle kept = view.intersection(newView);
+        if (kept.isEmpty()) {
+            drawView(g, newView, newView, zoom);
+            return;
+        }
+        g.copyArea(kept.x - view.x, kept.y - view.y, kept.width, kept.height,
+                view.x - newView.x, view.y - newView.y);
+
+        //strips above / below and left / right of the kept area
+        int right = newView.x + newView.width;
+        int bottom = newView.y + newView.height;
+        int keptRight = kept.x + kept.width;
+        int keptBottom = kept.y + kept.height;
+        drawView(g, newView, new Rectangle(newView.x, newView.y, newView.width, kept.y - newView.y), zoom);
+        drawView(g, newView, new Rectangle(newView.x, keptBottom, newView.width, bottom - keptBottom), zoom);
+        drawView(g, newView, new Rectangle(newView.x, kept.y, kept.x - newView.x, kept.height), zoom);
+        drawView(g, newView, new Rectangle(keptRight, kept.y, right - keptRight, kept.height), zoom);
+    }
+
+    /**
+     * Draws the given pixel area of the grid into the buffer holding the given view
+     */
+    private void drawView(Graphics g, Rectangle view, Rectangle area, Zoom zoom) {
+        if (area.isEmpty())
+            return;
+        Graphics ag = g.create();
+        try {
+            ag.translate(-view.x, -view.y);
+            ag.clipRect(area.x, area.y, area.width, area.height);
+            renderer.draw(ag, area, zoom);
+        } finally {
+            ag.dispose();
+        }
+    }
+
+    /**
+     * Releases the resources of the buffer, it is recreated on the next paint
+     */
+    public void flush() {
+        if (volatileImage != null)
+            volatileImage.flush();
+        volatileImage = null;
+        bufferedImage = null;
+        view = null;
+    }
+}
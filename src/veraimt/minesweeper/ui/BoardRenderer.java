@@ -0,0 +1,179 @@
+package veraimt.minesweeper.ui;
+
+import veraimt.minesweeper.game.Board;
+import veraimt.minesweeper.jfr.DrawEvent;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Draws the cells of a {@link Board} with a {@link Graphics}.
+ * Independent of any component, so it can also draw into offscreen images
+ * <p>
+ * Cells of at least {@link #MIN_SPRITE_SIZE} pixels are drawn as sprites, smaller cells as flat colors and zoom
+ * levels with several cells per pixel from a {@link BoardSummary}. The last two are written into a pixel array
+ * and drawn as a single image
+ */
+public class BoardRenderer {
+
+    //Size Constants
+    public static final int CELL_SIZE = 30;
+    //smallest cell size with sprites, numbers are unreadable below
+    public static final int MIN_SPRITE_SIZE = 8;
+
+    //Color of pixels outside the grid
+    private static final int BACKGROUND = 0x808080;
+
+    private final Board board;
+
+    //Resources
+    private final Image flagImg;
+    private final Image bombImg;
+
+    //every cell appearance pre-rendered, by cell size
+    private final Map<Integer, SpriteAtlas> atlases = new HashMap<>();
+    private final BoardSummary summary;
+
+    //reused pixel buffer for flat colored drawing
+    private BufferedImage pixelImage;
+    private int[] pixels;
+
+    public BoardRenderer(Board board, Image flagImg, Image bombImg) {
+        this.board = board;
+        this.flagImg = flagImg;
+        this.bombImg = bombImg;
+        this.summary = new BoardSummary(board);
+    }
+
+    /**
+     * Must be called on the EDT with the changed cells before the next draw, so zoomed out views stay up to date
+     * @param xStart Start x-coordinate
+     * @param yStart Start y-coordinate
+     * @param xEnd End x-coordinate
+     * @param yEnd End y-coordinate
+     */
+    public void invalidate(int xStart, int yStart, int xEnd, int yEnd) {
+        summary.update(xStart, yStart, xEnd, yEnd);
+    }
+
+    /**
+     * Draws the given part of the game grid with the given Graphics at {@link #CELL_SIZE}
+     * @param g Graphics used for drawing
+     * @param xStart Start x-coordinate
+     * @param xEnd End x-coordinate
+     * @param yStart Start y-coordinate
+     * @param yEnd End y-coordinate
+     */
+    public void drawArea(Graphics g, int xStart, int xEnd, int yStart, int yEnd) {
+        drawSprites(g, atlas(CELL_SIZE), xStart, xEnd, yStart, yEnd);
+    }
+
+    /**
+     * Draws the given pixel area of the game grid at the given zoom
+     * @param g Graphics used for drawing, in pixel-coordinates of the whole grid
+     * @param area pixel area to draw
+     * @param zoom the zoom to draw at
+     */
+    public void draw(Graphics g, Rectangle area, Zoom zoom) {
+        if (area.isEmpty())
+            return;
+
+        DrawEvent event = new DrawEvent();
+        event.begin();
+
+        if (zoom.level() == 0 && zoom.cellSize() >= MIN_SPRITE_SIZE) {
+            int cellSize = zoom.cellSize();
+            int xEnd = Math.min(board.width - 1, (area.x + area.width - 1) / cellSize);
+            int yEnd = Math.min(board.height - 1, (area.y + area.height - 1) / cellSize);
+            drawSprites(g, atlas(cellSize), area.x / cellSize, xEnd, area.y / cellSize, yEnd);
+        } else {
+            int[] out = pixels(area.width, area.height);
+            if (zoom.level() == 0)
+                fillCells(out, area, zoom.cellSize());
+            else
+                fillRegions(out, area, zoom.level());
+            g.drawImage(pixelImage, area.x, area.y, area.x + area.width, area.y + area.height,
+                    0, 0, area.width, area.height, null);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setBoard(board.width, board.height);
+            event.areaWidth = area.width;
+            event.areaHeight = area.height;
+            event.cellSize = zoom.cellSize();
+            event.zoomLevel = zoom.level();
+            event.commit();
+        }
+    }
+
+    private void drawSprites(Graphics g, SpriteAtlas atlas, int xStart, int xEnd, int yStart, int yEnd) {
+        int cellSize = atlas.cellSize;
+        //iterating row by row to follow the memory layout of the Board
+        for (int y = yStart; y <= yEnd; y++) {
+            int i = board.index(xStart, y);
+            for (int x = xStart; x <= xEnd; x++, i++) {
+                //pixel coordinates: origin of the cell (top-left corner)
+                atlas.draw(g, SpriteAtlas.spriteOf(board, i), x * cellSize, y * cellSize);
+            }
+        }
+    }
+
+    /**
+     * Writes the flat colors of the cells in the area into the pixel buffer, each cell covering cellSize pixels
+     */
+    private void fillCells(int[] out, Rectangle area, int cellSize) {
+        int stride = pixelImage.getWidth();
+        for (int py = 0; py < area.height; py++) {
+            int y = (area.y + py) / cellSize;
+            int row = py * stride;
+            if (y >= board.height) {
+                Arrays.fill(out, row, row + area.width, BACKGROUND);
+                continue;
+            }
+            for (int px = 0; px < area.width; px++) {
+                int x = (area.x + px) / cellSize;
+                out[row + px] = x < board.width ? BoardSummary.colorOf(board, board.index(x, y)) : BACKGROUND;
+            }
+        }
+    }
+
+    /**
+     * Writes the summarized colors of the regions in the area into the pixel buffer, one region per pixel
+     */
+    private void fillRegions(int[] out, Rectangle area, int level) {
+        summary.build();
+        int stride = pixelImage.getWidth();
+        int regionsX = ((board.width - 1) >> level) + 1;
+        int regionsY = ((board.height - 1) >> level) + 1;
+        for (int py = 0; py < area.height; py++) {
+            int ry = area.y + py;
+            int row = py * stride;
+            for (int px = 0; px < area.width; px++) {
+                int rx = area.x + px;
+                out[row + px] = rx < regionsX && ry < regionsY ? summary.colorAt(level, rx, ry) : BACKGROUND;
+            }
+        }
+    }
+
+    /**
+     * @return the pixel array of the reused image, grown to at least the given size
+     */
+    private int[] pixels(int width, int height) {
+        if (pixelImage == null || pixelImage.getWidth() < width || pixelImage.getHeight() < height) {
+            int w = Math.max(width, pixelImage == null ? 0 : pixelImage.getWidth());
+            int h = Math.max(height, pixelImage == null ? 0 : pixelImage.getHeight());
+            pixelImage = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) pixelImage.getRaster().getDataBuffer()).getData();
+        }
+        return pixels;
+    }
+
+    private SpriteAtlas atlas(int cellSize) {
+        return atlases.computeIfAbsent(cellSize, size -> new SpriteAtlas(size, flagImg, bombImg));
+    }
+}
@@ -0,0 +1,129 @@
+package veraimt.minesweeper.ui;
+
+import veraimt.minesweeper.game.Board;
+
+import java.awt.*;
+
+/**
+ * Downsampled colors of a {@link Board} for drawing zoomed out views without visiting every cell.
+ * <p>
+ * Level {@code l} stores one averaged RGB color per region of 2^l * 2^l cells, each level is computed from the one
+ * below. The levels are built on first use and afterwards only the regions of changed cells are recomputed.
+ * The summary is only used on the EDT: changed cells are applied when the repaint of a frame is flushed
+ */
+public class BoardSummary {
+    //highest level kept, a region then covers 64 * 64 cells
+    public static final int MAX_LEVEL = 6;
+
+    //flat color of every sprite, used for cells drawn smaller than a sprite
+    private static final int[] SPRITE_COLORS = new int[SpriteAtlas.SPRITES];
+
+    static {
+        int revealed = 0x9E9E9E;
+        SPRITE_COLORS[0] = revealed;
+        for (int count = 1; count <= 8; count++)
+            SPRITE_COLORS[count] = average(SpriteAtlas.getTileColor(count).getRGB() & 0xFFFFFF, revealed);
+        SPRITE_COLORS[SpriteAtlas.HIDDEN] = Color.LIGHT_GRAY.getRGB() & 0xFFFFFF;
+        SPRITE_COLORS[SpriteAtlas.FLAG] = 0xD03030;
+        SPRITE_COLORS[SpriteAtlas.BOMB] = 0x202020;
+        SPRITE_COLORS[SpriteAtlas.FLAGGED_BOMB] = 0xD03030;
+    }
+
+    /**
+     * Returns the flat RGB color of the given cell
+     * @param board Board containing the cell
+     * @param i index of the cell
+     * @return RGB color of the cell
+     */
+    public static int colorOf(Board board, int i) {
+        return SPRITE_COLORS[SpriteAtlas.spriteOf(board, i)];
+    }
+
+    private final Board board;
+    //levels[l] contains the colors of level l, levels[0] is unused
+    private final int[][] levels = new int[MAX_LEVEL + 1][];
+    private boolean built;
+
+    public BoardSummary(Board board) {
+        this.board = board;
+    }
+
+    /**
+     * Returns the color of a region, {@link #build()} must have been called before
+     * @param level level of the region, between 1 and {@link #MAX_LEVEL}
+     * @param rx x-coordinate of the region
+     * @param ry y-coordinate of the region
+     * @return RGB color of the region
+     */
+    public int colorAt(int level, int rx, int ry) {
+        return levels[level][ry * regions(board.width, level) + rx];
+    }
+
+    /**
+     * Computes all levels if they weren't computed yet
+     */
+    public void build() {
+        if (built)
+            return;
+        for (int level = 1; level <= MAX_LEVEL; level++)
+            levels[level] = new int[regions(board.width, level) * regions(board.height, level)];
+        recompute(0, 0, board.width - 1, board.height - 1);
+        built = true;
+    }
+
+    /**
+     * Recomputes the regions containing the given cells, ignored until the summary is built
+     * @param xStart Start x-coordinate
+     * @param yStart Start y-coordinate
+     * @param xEnd End x-coordinate
+     * @param yEnd End y-coordinate
+     */
+    public void update(int xStart, int yStart, int xEnd, int yEnd) {
+        if (built)
+            recompute(xStart, yStart, xEnd, yEnd);
+    }
+
+    private void recompute(int xStart, int yStart, int xEnd, int yEnd) {
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            int[] colors = levels[level];
+            int width = regions(board.width, level);
+            //size of the level below, level 0 are the cells themselves
+            int belowWidth = level == 1 ? board.width : regions(board.width, level - 1);
+            int belowHeight = level == 1 ? board.height : regions(board.height, level - 1);
+
+            for (int ry = yStart >> level; ry <= yEnd >> level; ry++) {
+                for (int rx = xStart >> level; rx <= xEnd >> level; rx++) {
+                    //averaging the up to 4 children of the region
+                    int r = 0, g = 0, b = 0, n = 0;
+                    for (int cy = ry * 2; cy <= ry * 2 + 1 && cy < belowHeight; cy++) {
+                        for (int cx = rx * 2; cx <= rx * 2 + 1 && cx < belowWidth; cx++) {
+                            int rgb = level == 1
+                                    ? colorOf(board, board.index(cx, cy))
+                                    : levels[level - 1][cy * belowWidth + cx];
+                            r += rgb >> 16 & 0xFF;
+                            g += rgb >> 8 & 0xFF;
+                            b += rgb & 0xFF;
+                            n++;
+                        }
+                    }
+                    colors[ry * width + rx] = (r / n) << 16 | (g / n) << 8 | (b / n);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param cells width or height of the grid
+     * @param level level of the regions
+     * @return amount of regions needed to cover the cells
+     */
+    private static int regions(int cells, int level) {
+        return ((cells - 1) >> level) + 1;
+    }
+
+    private static int average(int a, int b) {
+        return (((a >> 16 & 0xFF) + (b >> 16 & 0xFF)) / 2) << 16
+                | (((a >> 8 & 0xFF) + (b >> 8 & 0xFF)) / 2) << 8
+                | ((a & 0xFF) + (b & 0xFF)) / 2;
+    }
+}
@@ -1,19 +1,45 @@
 package veraimt.minesweeper.ui;
 
+import veraimt.minesweeper.game.BoardPool;
+import veraimt.minesweeper.game.BombPlacer;
+import veraimt.minesweeper.game.Difficulty;
 import veraimt.minesweeper.game.Game;
+import veraimt.minesweeper.game.GameJournal;
+import veraimt.minesweeper.game.GameSnapshot;
+import veraimt.minesweeper.solver.NoGuessGenerator;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class GUI extends JFrame {
+    private static final Logger LOG = Logger.getLogger(GUI.class.getName());
+
+    //running games are saved here when their window is closed
+    static final Path AUTOSAVE = Path.of(System.getProperty("minesweeper.save.file",
+            Path.of(System.getProperty("user.home"), ".minesweeper", "autosave.msw").toString()));
 
     GameWindow gameWindow;
 
+    //Pre-generates the Bombs of the next games
+    final BoardPool boardPool = new BoardPool();
+    //Generates layouts that can be solved without guessing
+    private final NoGuessGenerator noGuessGenerator = new NoGuessGenerator();
+    //records all played games if -Dminesweeper.journal.file is set, may be null
+    final GameJournal journal = openJournal();
+
     private final GridSizeSliderPanel sliderPanel = new GridSizeSliderPanel();
     private final JComboBox<Difficulty> difficultySelector = new JComboBox<>(Difficulty.values());
+    private final JCheckBox noGuessBox = new JCheckBox("No guessing");
+    private final JButton continueButton = new JButton();
 
     public GUI() {
         super("Minesweeper");
@@ -34,6 +60,8 @@ public class GUI extends JFrame {
         BorderedPanel difficultyPanel = new BorderedPanel("Difficulty");
         difficultyPanel.setLayout(new GridLayout());
         difficultyPanel.add(difficultySelector);
+        noGuessBox.setToolTipText("Generates grids that can be solved without guessing, takes longer on large grids");
+        difficultyPanel.add(noGuessBox);
 
 
         //Start Button
@@ -46,6 +74,12 @@ public class GUI extends JFrame {
         });
 
 
+        //Continue Button, loads the autosaved game
+        continueButton.setText("CONTINUE");
+        continueButton.addActionListener(l -> continueGame());
+        updateContinueButton();
+
+
         //Main Panel + Layout
         JPanel mainPanel = new JPanel();
         GroupLayout layout = new GroupLayout(mainPanel);
@@ -57,6 +91,7 @@ public class GUI extends JFrame {
                         .addComponent(sliderPanel,  GroupLayout.DEFAULT_SIZE, GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
                         .addComponent(difficultyPanel,  GroupLayout.DEFAULT_SIZE, GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
                         .addComponent(startButton, GroupLayout.DEFAULT_SIZE, GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                        .addComponent(continueButton, GroupLayout.DEFAULT_SIZE, GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
         );
 
         layout.setVerticalGroup(
@@ -65,6 +100,7 @@ public class GUI extends JFrame {
                         .addComponent(difficultyPanel, GroupLayout.DEFAULT_SIZE, GroupLayout.DEFAULT_SIZE, GroupLayout.PREFERRED_SIZE)
                         .addGap(4, 4, Short.MAX_VALUE)
                         .addComponent(startButton, GroupLayout.DEFAULT_SIZE, GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                        .addComponent(continueButton, GroupLayout.DEFAULT_SIZE, GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
         );
 
         add(mainPanel);
@@ -78,21 +114,88 @@ public class GUI extends JFrame {
         setVisible(true);
     }
 
+    /**
+     * Opens the autosaved game, the save file is deleted once it was loaded
+     */
+    private void continueGame() {
+        GameSnapshot.Loaded loaded;
+        try {
+            loaded = GameSnapshot.load(AUTOSAVE);
+            Files.deleteIfExists(AUTOSAVE);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "The saved game could not be loaded:\n" + e.getMessage(),
+                    "Minesweeper", JOptionPane.ERROR_MESSAGE);
+            updateContinueButton();
+            return;
+        }
+        updateContinueButton();
+
+        gameWindow = new GameWindow(this, loaded.game(), (int) (loaded.elapsedMillis() / 1000));
+        gameWindow.setVisible(true);
+        this.setVisible(false);
+    }
+
+    /**
+     * Enables the continue button if there is an autosaved game
+     */
+    void updateContinueButton() {
+        continueButton.setEnabled(Files.isRegularFile(AUTOSAVE));
+    }
+
+    private static GameJournal openJournal() {
+        try {
+            return GameJournal.openConfigured();
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Journal couldn't be opened", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return places the Bombs of new games with the current settings, must be called on the EDT
+     */
+    BombPlacer bombPlacer() {
+        return noGuessBox.isSelected() ? noGuessGenerator : boardPool;
+    }
+
     Game createGame() {
-        return new Game(sliderPanel.getValue(), sliderPanel.getValue(),
-                (int) (Math.pow(sliderPanel.getValue(), 2) *
-                        ((Difficulty) Objects.requireNonNull(difficultySelector.getSelectedItem())).fac));
+        return gameFactory().get();
+    }
+
+    /**
+     * Captures the current game settings, must be called on the EDT
+     * @return a Supplier creating games with the current settings, can be called on any thread
+     */
+    Supplier<Game> gameFactory() {
+        int size = sliderPanel.getValue();
+        int bombs = ((Difficulty) Objects.requireNonNull(difficultySelector.getSelectedItem())).bombs(size, size);
+        boolean noGuess = noGuessBox.isSelected();
+        return () -> {
+            //the Bombs are generated in the background while the player looks at the blank grid,
+            //layouts without guesses depend on the first click and can't be pooled
+            if (!noGuess)
+                boardPool.prepare(size, size, bombs);
+            return new Game(size, size, bombs);
+        };
     }
 
     private class GridSizeSliderPanel extends SliderPanel {
+        //selectable grid sizes, finer steps for small grids
+        private static final int[] SIZES = {5, 8, 10, 12, 15, 16, 20, 25, 30, 35, 40, 50, 60, 80, 100, 150, 200, 300,
+                500, 1000, 2000, 5000};
 
         public GridSizeSliderPanel() {
             super("Grid Size");
-            slider.setMinimum(5);
-            slider.setMaximum(40);
-            slider.setValue(20);
+            slider.setMinimum(0);
+            slider.setMaximum(SIZES.length - 1);
+            slider.setValue(6);
             slider.setToolTipText("Defines the size of the Game Grid");
         }
+
+        @Override
+        public int getValue() {
+            return SIZES[slider.getValue()];
+        }
     }
 
 
@@ -107,12 +210,10 @@ public class GUI extends JFrame {
 
             setLayout(layout);
 
-            label.setText(String.valueOf(slider.getValue()));
-
             slider.setPaintLabels(true);
             slider.setName(panelName);
 
-            slider.addChangeListener(e -> label.setText(String.valueOf(slider.getValue())));
+            slider.addChangeListener(e -> label.setText(String.valueOf(getValue())));
 
 
 
@@ -143,16 +244,4 @@ public class GUI extends JFrame {
                     BorderFactory.createEmptyBorder(5,5,5,5)));
         }
     }
-
-    private enum Difficulty {
-        EASY(.05f),
-        MEDIUM(.1f),
-        HARD(.15f),
-        ULTRA(.25f);
-
-        public final float fac;
-        Difficulty(float fac) {
-            this.fac = fac;
-        }
-    }
 }
@@ -1,25 +1,32 @@
 package veraimt.minesweeper.ui;
 
+import veraimt.minesweeper.game.BoardMetrics;
 import veraimt.minesweeper.game.Game;
-import veraimt.minesweeper.game.tiles.BaseTile;
-import veraimt.minesweeper.game.tiles.Bomb;
-import veraimt.minesweeper.game.tiles.Tile;
+import veraimt.minesweeper.game.GameCommand;
+import veraimt.minesweeper.game.GameLoop;
+import veraimt.minesweeper.game.GameSnapshot;
+import veraimt.minesweeper.metrics.Histogram;
+import veraimt.minesweeper.metrics.Metrics;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class GameWindow extends JFrame {
+    private static final Logger LOG = Logger.getLogger(GameWindow.class.getName());
+
     private final GUI host;
 
     //Resources
@@ -27,22 +34,38 @@ public class GameWindow extends JFrame {
     private final Image bombImg;
 
     private final InfoPanel infoPanel;
+    private final GameCanvas gameCanvas;
 
-    private int timer = 0;
+    //seconds played, written by the timer task
+    private volatile int timer;
     //Other
     public Game game;
+    //thread applying all changes to the game
+    private final GameLoop gameLoop;
 
     private final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+    //only accessed on the EDT
     private ScheduledFuture<?> timerTask;
 
     public GameWindow(GUI host, Game game) {
+        this(host, game, 0);
+    }
+
+    /**
+     * Creates a window for a game that may already be running, e.g. one loaded from a {@link GameSnapshot}
+     * @param host the main menu
+     * @param game game to be displayed
+     * @param elapsedSeconds seconds already spent playing the game
+     */
+    public GameWindow(GUI host, Game game, int elapsedSeconds) {
         super("Minesweeper");
         this.host = host;
         this.game = game;
+        this.timer = elapsedSeconds;
 
         setDefaultCloseOperation(DISPOSE_ON_CLOSE);
         setLocationRelativeTo(null);
-        setResizable(false);
+        setResizable(true);
 
         //Loading Resources
         try {
@@ -54,48 +77,118 @@ public class GameWindow extends JFrame {
 
         //Instantiating Components
         infoPanel = new InfoPanel();
-        GameCanvas gameCanvas = new GameCanvas();
+        //Game loop applying all clicks, the flag count is updated after every command
+        this.gameLoop = new GameLoop(game, host.bombPlacer(), host.journal, command -> SwingUtilities.invokeLater(
+                () -> infoPanel.flagCountLabel.setText(String.valueOf(game.flags))));
+        gameCanvas = new GameCanvas();
 
 
         //Adding Components
         add(infoPanel, BorderLayout.PAGE_START);
-        add(gameCanvas);
+        JScrollPane scrollPane = new JScrollPane(gameCanvas);
+        scrollPane.getViewport().setBackground(Color.GRAY);
+        add(scrollPane);
 
 
         pack();
 
 
-        game.addStateChangeListener(gameState -> {
+        //a loaded game continues where it was left
+        infoPanel.timerLabel.setText(formatTimer());
+        if (game.getState() == Game.GameState.OK)
+            startTimer();
+
+        //state changes are fired on the game loop thread, the components are updated on the EDT
+        game.addStateChangeListener(gameState -> SwingUtilities.invokeLater(() -> {
             //if the game has ended (player won or lost) the Status Display is updated and the timer is cancelled
             switch (gameState) {
-                case WIN -> infoPanel.statusDisplay.setStatus(InfoPanel.StatusDisplay.Status.WIN);
+                case OK -> {
+                    //the first click started the game
+                    startTimer();
+                    return;
+                }
+                case WIN -> {
+                    infoPanel.statusDisplay.setStatus(InfoPanel.StatusDisplay.Status.WIN);
+                    showEfficiency();
+                }
                 case LOSE -> infoPanel.statusDisplay.setStatus(InfoPanel.StatusDisplay.Status.DEAD);
                 default -> {
                     return;
                 }
             }
-            timerTask.cancel(true);
-        });
+            if (timerTask != null)
+                timerTask.cancel(true);
+        }));
 
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
                 super.windowClosing(e);
-                host.setVisible(true);
                 onWindowClose();
+                autosave();
+                host.updateContinueButton();
+                host.setVisible(true);
             }
         });
 
     }
 
     /**
-     * Increments the timer and updates the timer Label
+     * Shows the 3BV of the won game and the 3BV solved per second in the title, must be called on the EDT.
+     * The metrics take tens of milliseconds per million cells, so they are computed on the timer's thread
+     */
+    private void showEfficiency() {
+        int seconds = Math.max(1, timer);
+        //the window may have been closed before a queued state change arrived
+        if (executor.isShutdown())
+            return;
+        executor.execute(() -> {
+            BoardMetrics metrics = game.getMetrics();
+            String title = String.format("Minesweeper - 3BV %d in %ds (%.2f 3BV/s)", metrics.bbbv(), seconds,
+                    (double) metrics.bbbv() / seconds);
+            SwingUtilities.invokeLater(() -> setTitle(title));
+        });
+    }
+
+    /**
+     * Increments the timer and updates the timer Label on the EDT
      */
     private void incrementTimer() {
         timer++;
+        String text = formatTimer();
+        SwingUtilities.invokeLater(() -> infoPanel.timerLabel.setText(text));
+    }
+
+    private String formatTimer() {
         String s = String.valueOf(timer);
+        return "0".repeat(Math.max(0, 4 - s.length())) + s;
+    }
 
-        infoPanel.timerLabel.setText("0".repeat(Math.max(0, 4 - s.length())) + s);
+    /**
+     * Starts the timer, must be called on the EDT
+     */
+    private void startTimer() {
+        //the window may have been closed before a queued state change arrived
+        if (executor.isShutdown())
+            return;
+        timerTask = executor.scheduleAtFixedRate(this::incrementTimer, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Saves a running game to {@link GUI#AUTOSAVE}, so it can be continued from the main menu.
+     * Must be called after the game loop was shut down
+     */
+    private void autosave() {
+        try {
+            //the game must not be modified while it is written
+            if (!gameLoop.awaitTermination(1000) || game.getState() != Game.GameState.OK)
+                return;
+            GameSnapshot.save(game, timer * 1000L, GUI.AUTOSAVE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Game couldn't be saved to " + GUI.AUTOSAVE, e);
+        }
     }
 
     /**
@@ -103,6 +196,10 @@ public class GameWindow extends JFrame {
      */
     private void onWindowClose() {
         executor.shutdownNow();
+        gameLoop.shutdown();
+        gameCanvas.repaintScheduler.stop();
+        gameCanvas.overlayTimer.stop();
+        gameCanvas.backBuffer.flush();
     }
 
     /**
@@ -116,7 +213,7 @@ public class GameWindow extends JFrame {
         public final StatusDisplay statusDisplay;
         public final JLabel flagCountLabel;
         public InfoPanel() {
-            timerLabel = new JLabel("0000");
+            timerLabel = new JLabel();
             statusDisplay = new StatusDisplay();
             flagCountLabel = new JLabel();
 
@@ -205,13 +302,15 @@ public class GameWindow extends JFrame {
                         //If the game has ended (player is either dead or has won)
                         //The old game window is discarded and a new one is created
                         switch (status) {
-                            case DEAD, WIN -> {
-                                GameWindow.this.setVisible(false);
-                                host.gameWindow = new GameWindow(host, host.createGame());
-                                host.gameWindow.setLocationRelativeTo(GameWindow.this);
-                                host.gameWindow.setVisible(true);
-                                onWindowClose();
-                            }
+                            //the next game is created by the game loop, after all pending clicks were applied
+                            case DEAD, WIN -> gameLoop.submit(new GameCommand.Restart(host.gameFactory(),
+                                    next -> SwingUtilities.invokeLater(() -> {
+                                        GameWindow.this.setVisible(false);
+                                        host.gameWindow = new GameWindow(host, next);
+                                        host.gameWindow.setLocationRelativeTo(GameWindow.this);
+                                        host.gameWindow.setVisible(true);
+                                        onWindowClose();
+                                    })));
                         }
                     }
                 });
@@ -241,231 +340,265 @@ public class GameWindow extends JFrame {
 
 
     /**
-     * An Extension of {@link JComponent} used to display the Game
+     * An Extension of {@link JComponent} used to display the Game.
+     * Placed in a {@link JScrollPane}, only the visible part of the grid is drawn. Ctrl + mouse wheel or +/- change
+     * the {@link Zoom}, zoom levels combining several cells into a pixel are for inspecting only
      */
-    private class GameCanvas extends JComponent {
-
-        //Size Constants
-        private static final int CELL_SIZE = 30;
-        private static final int IMG_SIZE = CELL_SIZE * 2 / 3;
+    private class GameCanvas extends JComponent implements Scrollable {
+        private static final Histogram PAINT = Metrics.histogram("ui.paint", Histogram.NANOS);
 
-        //Text colors for numbers on Cells
-        private static final Color[] COLORS = {Color.BLUE, Color.CYAN, Color.GREEN, Color.YELLOW,
-                Color.ORANGE, Color.RED, Color.MAGENTA, Color.BLACK};
-        //Font for numbers on Cells
-        private static final Font FONT = new Font("Serif", Font.BOLD, (int) (CELL_SIZE * 0.8));
+        private final BoardRenderer renderer = new BoardRenderer(game.board, flagImg, bombImg);
+        //image of the visible part of the grid, only changed cells are redrawn
+        private final BackBuffer backBuffer = new BackBuffer(renderer, game.width, game.height);
+        //coalesces the changed cells of all updates in a frame into a few repaints
+        private final RepaintScheduler repaintScheduler = new RepaintScheduler(this::repaintCells);
+        //refreshes the metrics overlay while it is shown
+        private final Timer overlayTimer = new Timer(500, e -> repaint(getVisibleRect()));
 
-        /**
-         * Returns the Color for the number on the corresponding {@link Tile} or null if {@link Tile#getCount()} != 0
-         * @param tile Tile to get the Color for
-         * @return the Color for the Tile if {@link Tile#getCount()} != 0 otherwise null
-         */
-        private static Color getTileColor(Tile tile) {
-            if (tile.getCount() == 0 || tile.getCount() > COLORS.length)
-                return null;
-            return COLORS[tile.getCount()-1];
-        }
+        //index into Zoom.LEVELS, only used on the EDT
+        private int zoomLevel = initialZoomLevel();
 
         public GameCanvas() {
-            setPreferredSize(new Dimension(game.width * CELL_SIZE, game.height * CELL_SIZE));
+            updatePreferredSize();
             setBackground(Color.GRAY);
 
-            game.addTileUpdateListener(baseTiles -> {
-                //When Tiles get updated by the game, the corresponding area is repainted
-                for (var tile : baseTiles) {
-                    repaint(tile.x* CELL_SIZE, tile.y* CELL_SIZE, CELL_SIZE, CELL_SIZE);
-                }
+            game.addTileUpdateListener(update -> {
+                //When Tiles get updated by the game, the changed area is repainted with the next frame
+                repaintScheduler.add(update);
             });
 
             addMouseListener(new MouseAdapter() {
-                //Date Formatter - for DEBUG only
-                private final SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss.SSS");
                 @Override
                 public void mousePressed(MouseEvent event) {
                     super.mousePressed(event);
 
-                    //New Thread to reduce latency
-                    new Thread(() -> {
-
-                        //DEBUG
-                        System.out.printf(sdf.format(new Date())
-                                + "-> Click at x=%1$d, y=%2$d, click=%3$d\n", event.getX(), event.getY(), event.getButton());
-
-                        //Getting position of the clicked Tile
-                        Point point = getTilePosAt(event.getX(), event.getY());
-                        if (point == null)
-                            return;
-
-                        switch (game.getState()) {
-                            case BLANK -> {
-                                //game grid is blank, so the first click randomizes it
-                                game.randomize(point.x, point.y);
-                                //starting timer
-                                timerTask = executor
-                                        .scheduleAtFixedRate(GameWindow.this::incrementTimer, 1, 1, TimeUnit.SECONDS);
-                            }
-                            case WIN, LOSE -> {
-                                return;
-                            }
-
-                        }
+                    //Getting position of the clicked Tile
+                    Point point = getTilePosAt(event.getX(), event.getY());
+                    if (point == null)
+                        return;
 
+                    //pressing both buttons chords, whichever was pressed first
+                    int both = MouseEvent.BUTTON1_DOWN_MASK | MouseEvent.BUTTON3_DOWN_MASK;
+                    if ((event.getModifiersEx() & both) == both) {
+                        gameLoop.submit(new GameCommand.Chord(point.x, point.y));
+                        return;
+                    }
 
+                    //the click is applied by the game loop, the first click also places the Bombs
+                    switch (event.getButton()) {
+                        //Left-Click
+                        case 1 -> gameLoop.submit(new GameCommand.Search(point.x, point.y));
+                        //Middle-Click
+                        case 2 -> gameLoop.submit(new GameCommand.Chord(point.x, point.y));
+                        //Right-Click
+                        case 3 -> gameLoop.submit(new GameCommand.Flag(point.x, point.y));
+                    }
+                }
+            });
 
-                        switch (event.getButton()) {
-                            //Left-Click
-                            case 1 -> game.search(point.x, point.y);
-                            //Right-Click
-                            case 3 -> game.toggleFlag(point.x, point.y);
+            addMouseWheelListener(event -> {
+                if (event.isControlDown()) {
+                    //zooming around the mouse pointer
+                    setZoomLevel(zoomLevel - event.getWheelRotation(), event.getPoint());
+                    return;
+                }
+                //scrolling is left to the scroll pane
+                JScrollPane scrollPane = (JScrollPane) SwingUtilities.getAncestorOfClass(JScrollPane.class, this);
+                if (scrollPane != null)
+                    scrollPane.dispatchEvent(SwingUtilities.convertMouseEvent(this, event, scrollPane));
+            });
 
-                        }
-                        //updating Flag count
-                        infoPanel.flagCountLabel.setText(String.valueOf(game.flags));
-                    }).start();
+            //zooming around the center of the visible area
+            getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke('+'), "zoomIn");
+            getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke('-'), "zoomOut");
+            getActionMap().put("zoomIn", new AbstractAction() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    setZoomLevel(zoomLevel + 1, center(getVisibleRect()));
+                }
+            });
+            getActionMap().put("zoomOut", new AbstractAction() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    setZoomLevel(zoomLevel - 1, center(getVisibleRect()));
                 }
             });
 
+            //F3 toggles the metrics overlay
+            getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), "toggleMetrics");
+            getActionMap().put("toggleMetrics", new AbstractAction() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    setMetricsOverlay(!overlayTimer.isRunning());
+                }
+            });
         }
 
         @Override
         public void update(Graphics g) {
-            //DEBUG
-            long time = System.currentTimeMillis();
-            System.out.println("--Call to Update--");
-            System.out.println("Bounds: " + g.getClipBounds());
-
-            //Converting coordinates of Area to be updated into game coordinates
-            Rectangle clip = g.getClipBounds();
-
-            int xStart = clip.x / CELL_SIZE;
-            int xEnd = xStart + (clip.width-1) / CELL_SIZE;
-
-            int yStart = clip.y / CELL_SIZE;
-            int yEnd = yStart + (clip.height-1) / CELL_SIZE;
-
-            //clearing Area
-            g.clearRect(clip.x, clip.y, clip.width, clip.height);
-            //drawing Area
-            drawArea(g, xStart, xEnd, yStart, yEnd);
-
-            //DEBUG
-            System.out.println("Update took " + (System.currentTimeMillis() - time) + "ms");
+            paint(g);
         }
 
         @Override
         public void paint(Graphics g) {
-            //DEBUG
-            long time = System.currentTimeMillis();
-            System.out.println("--Call to paint--");
-            System.out.println("Bounds: " + g.getClipBounds());
+            long start = Metrics.now();
+            Rectangle visible = getVisibleRect();
 
-            //drawing whole Game Grid
-            drawArea(g, 0, game.width-1, 0, game.height-1);
+            //copying the visible part of the Game Grid from the back-buffer
+            g.setColor(getBackground());
+            g.fillRect(0, 0, getWidth(), getHeight());
+            backBuffer.paint(g, getGraphicsConfiguration(), visible, zoom());
 
-            //DEBUG
-            System.out.println("Paint took " + (System.currentTimeMillis() - time) + "ms");
+            if (overlayTimer.isRunning())
+                MetricsOverlay.paint(g, visible);
+            PAINT.recordSince(start);
         }
 
         /**
-         * Draws the given part of the game grid with the given Graphics
-         * @param g Graphics used for drawing
-         * @param xStart Start x-coordinate
-         * @param xEnd End x-coordinate
-         * @param yStart Start y-coordinate
-         * @param yEnd End y-coordinate
+         * Shows or hides the metrics overlay, which is refreshed twice a second while shown
          */
-        private void drawArea(Graphics g, int xStart, int xEnd, int yStart, int yEnd) {
-            for (int x = xStart; x <= xEnd; x++) {
-                for (int y = yStart; y <= yEnd; y++) {
-                    //Tile being processed in current iteration
-                    BaseTile currentTile = game.grid[x][y];
-
-                    //pixel coordinates: origin of the cell (top-left corner)
-                    int xOrigin = x* CELL_SIZE;
-                    int yOrigin = y* CELL_SIZE;
-
-                    //drawing Cell
-                    g.setColor(Color.LIGHT_GRAY);
-                    //                                                 Cell is raised if the Tile is not visible
-                    g.fill3DRect(xOrigin, yOrigin, CELL_SIZE, CELL_SIZE, !currentTile.isVisible);
-
-                    //pixel coordinates: center of the cell
-                    int xCenter = xOrigin + CELL_SIZE /2;
-                    int yCenter = yOrigin + CELL_SIZE /2;
-
-
-                    if (!currentTile.isVisible) {
-                        if (currentTile.hasFlag) {
-                            //Drawing Flag Image onto Cell
-                            drawImage(g, flagImg, xCenter, yCenter);
-                        }
-                        //Tile is not visible, no more processing required
-                        continue;
-                    }
-
-                    //vvv Tile visible vvv
-
-                    if (currentTile instanceof Tile tile) {
-                        //drawing count of the Tile onto the Cell
-
-                        if (getTileColor(tile) == null)
-                            //if the Color is null the count of the Tile is 0, so number needs to be drawn
-                            continue;
-                        g.setFont(FONT);
-                        g.setColor(getTileColor(tile));
-
-                        String num = String.valueOf(tile.getCount());
+        private void setMetricsOverlay(boolean shown) {
+            //the overlay is fixed in the visible area, so scrolling must not move it by blitting
+            JViewport viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, this);
+            if (viewport != null)
+                viewport.setScrollMode(shown ? JViewport.SIMPLE_SCROLL_MODE : JViewport.BLIT_SCROLL_MODE);
+            if (shown)
+                overlayTimer.start();
+            else
+                overlayTimer.stop();
+            repaint(getVisibleRect());
+        }
 
-                        //determining width and height of the number
-                        FontMetrics fm = g.getFontMetrics();
-                        int w = fm.stringWidth(num);
-                        int h = fm.getAscent();
+        /**
+         * Redraws and repaints the given cells, called by the RepaintScheduler on the EDT
+         * @param cells area in cell-coordinates
+         */
+        private void repaintCells(Rectangle cells) {
+            int xEnd = cells.x + cells.width - 1;
+            int yEnd = cells.y + cells.height - 1;
+            //the summary of the zoomed out levels is only touched on the EDT
+            renderer.invalidate(cells.x, cells.y, xEnd, yEnd);
+            backBuffer.markDirty(cells.x, cells.y, xEnd, yEnd);
+            Zoom zoom = zoom();
+            int x = zoom.toPixel(cells.x);
+            int y = zoom.toPixel(cells.y);
+            repaint(x, y, zoom.toPixelEnd(xEnd) - x, zoom.toPixelEnd(yEnd) - y);
+        }
 
-                        //drawing the number at the center of the cell with offset, so it appears at the right position
-                        g.drawString(num, xCenter - (w / 2), yCenter + (h / 4));
-                    }
-                    else if (currentTile instanceof Bomb) {
-                        //if the Bomb has a Flag, the Flag Image is drawn
-                        if (currentTile.hasFlag)
-                            drawImage(g, flagImg, xCenter, yCenter);
-                        //otherwise the Bomb Image is drawn
-                        else
-                            drawImage(g, bombImg, xCenter, yCenter);
-                    }
+        private Zoom zoom() {
+            return Zoom.LEVELS[zoomLevel];
+        }
 
-                }
+        /**
+         * Changes the zoom, keeping the cell at the given anchor at the same position on the screen
+         * @param level index into {@link Zoom#LEVELS}
+         * @param anchor pixel-coordinates of the anchor
+         */
+        private void setZoomLevel(int level, Point anchor) {
+            level = Math.max(0, Math.min(Zoom.LEVELS.length - 1, level));
+            if (level == zoomLevel)
+                return;
+
+            Rectangle visible = getVisibleRect();
+            //position of the anchor in cells
+            double cellX = anchor.x / zoom().scale();
+            double cellY = anchor.y / zoom().scale();
+
+            zoomLevel = level;
+            updatePreferredSize();
+
+            JViewport viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, this);
+            if (viewport != null) {
+                Dimension size = getPreferredSize();
+                viewport.setViewSize(size);
+                int x = (int) (cellX * zoom().scale()) - (anchor.x - visible.x);
+                int y = (int) (cellY * zoom().scale()) - (anchor.y - visible.y);
+                viewport.setViewPosition(new Point(
+                        Math.max(0, Math.min(x, size.width - visible.width)),
+                        Math.max(0, Math.min(y, size.height - visible.height))));
             }
+            revalidate();
+            repaint();
+        }
+
+        private void updatePreferredSize() {
+            setPreferredSize(new Dimension(zoom().gridPixels(game.width), zoom().gridPixels(game.height)));
         }
 
         /**
-         * Draws the given {@link Image} at the given pixel-coordinates
-         * @param g Graphics used for drawing
-         * @param img The Image to be drawn
-         * @param xCenter x-coordinate of the Image center
-         * @param yCenter y-coordinate of the Image center
+         * @return the closest zoom up to the default one that shows the whole grid on the screen,
+         * but not further out than drawing sprites
          */
-        private void drawImage(Graphics g, Image img, int xCenter, int yCenter) {
-            g.drawImage(img, xCenter- IMG_SIZE /2, yCenter- IMG_SIZE /2, IMG_SIZE, IMG_SIZE, this);
+        private int initialZoomLevel() {
+            Dimension max = maxViewportSize();
+            int level = Zoom.DEFAULT;
+            while (level > 0 && Zoom.LEVELS[level - 1].cellSize() >= BoardRenderer.MIN_SPRITE_SIZE
+                    && (Zoom.LEVELS[level].gridPixels(game.width) > max.width
+                    || Zoom.LEVELS[level].gridPixels(game.height) > max.height))
+                level--;
+            return level;
         }
 
         /**
          * Converts pixel-coordinates to {@link Game} coordinates
          * @param x x-pixel-coordinate
          * @param y y-pixel-coordinate
-         * @return a Point whose coordinates are meant to be used by the {@link Game}
+         * @return a Point whose coordinates are meant to be used by the {@link Game},
+         * null if outside the grid or the zoom is too far out to click single Tiles
          */
 
         private Point getTilePosAt(int x, int y) {
-            int tileX = x / CELL_SIZE;
-            int tileY = y / CELL_SIZE;
-
-            BaseTile tile = game.getTileAt(tileX,tileY);
+            Zoom zoom = zoom();
+            if (!zoom.isClickable())
+                return null;
+            int tileX = zoom.toCell(x);
+            int tileY = zoom.toCell(y);
 
-            if (tile == null)
+            if (!game.board.inBounds(tileX, tileY))
                 return null;
-            return new Point(tile.x, tile.y);
+            return new Point(tileX, tileY);
+        }
+
+        //Scrollable
+
+        @Override
+        public Dimension getPreferredScrollableViewportSize() {
+            Dimension size = getPreferredSize();
+            Dimension max = maxViewportSize();
+            return new Dimension(Math.min(size.width, max.width), Math.min(size.height, max.height));
+        }
+
+        @Override
+        public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return Math.max(zoom().cellSize(), 16);
+        }
+
+        @Override
+        public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return orientation == SwingConstants.HORIZONTAL ? visibleRect.width : visibleRect.height;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportWidth() {
+            return false;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportHeight() {
+            return false;
         }
+    }
+
+    /**
+     * @return the largest size of the grid area fitting on the screen next to the rest of the window
+     */
+    private static Dimension maxViewportSize() {
+        Rectangle screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+        return new Dimension(screen.width * 9 / 10, screen.height * 3 / 4);
+    }
 
+    private static Point center(Rectangle rectangle) {
+        return new Point(rectangle.x + rectangle.width / 2, rectangle.y + rectangle.height / 2);
     }
 
     /**
@@ -0,0 +1,70 @@
+package veraimt.minesweeper.ui;
+
+import veraimt.minesweeper.metrics.Counter;
+import veraimt.minesweeper.metrics.Histogram;
+import veraimt.minesweeper.metrics.LatencyHistogram;
+import veraimt.minesweeper.metrics.Metrics;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Debug overlay listing the current {@link Metrics}, drawn in the top-left corner of the visible area
+ */
+class MetricsOverlay {
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 180);
+    private static final int PADDING = 6;
+
+    private MetricsOverlay() {
+    }
+
+    /**
+     * Draws the overlay
+     * @param g Graphics used for drawing
+     * @param visible visible area of the component
+     */
+    static void paint(Graphics g, Rectangle visible) {
+        List<String> lines = lines();
+
+        g.setFont(FONT);
+        FontMetrics fm = g.getFontMetrics();
+        int width = 0;
+        for (String line : lines)
+            width = Math.max(width, fm.stringWidth(line));
+        int lineHeight = fm.getHeight();
+
+        g.setColor(BACKGROUND);
+        g.fillRect(visible.x, visible.y, width + 2 * PADDING, lines.size() * lineHeight + 2 * PADDING);
+        g.setColor(Color.WHITE);
+        for (int n = 0; n < lines.size(); n++)
+            g.drawString(lines.get(n), visible.x + PADDING, visible.y + PADDING + n * lineHeight + fm.getAscent());
+    }
+
+    private static List<String> lines() {
+        List<String> lines = new ArrayList<>();
+        if (!Metrics.ENABLED) {
+            lines.add("metrics disabled, start with -Dminesweeper.metrics=true");
+            return lines;
+        }
+        for (Histogram histogram : Metrics.histograms().values()) {
+            LatencyHistogram h = histogram.snapshot();
+            lines.add(String.format(Locale.ROOT, "%-20s n=%-7d p50=%-9s p99=%-9s max=%s", histogram.name,
+                    h.getCount(), format(h.percentile(50), histogram.unit), format(h.percentile(99), histogram.unit),
+                    format(h.getMax(), histogram.unit)));
+        }
+        for (Counter counter : Metrics.counters().values())
+            lines.add(String.format(Locale.ROOT, "%-20s %d", counter.name, counter.get()));
+        return lines;
+    }
+
+    private static String format(long value, String unit) {
+        if (!Histogram.NANOS.equals(unit))
+            return String.valueOf(value);
+        if (value >= 1_000_000)
+            return String.format(Locale.ROOT, "%.1fms", value / 1e6);
+        return String.format(Locale.ROOT, "%.1fus", value / 1e3);
+    }
+}
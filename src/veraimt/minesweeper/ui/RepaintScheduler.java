@@ -0,0 +1,210 @@
+package veraimt.minesweeper.ui;
+
+import veraimt.minesweeper.game.TileUpdate;
+import veraimt.minesweeper.metrics.Counter;
+import veraimt.minesweeper.metrics.Histogram;
+import veraimt.minesweeper.metrics.Metrics;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Collects dirty areas of the game grid from any thread and hands them to the EDT at most once per frame.
+ * <p>
+ * Touching or overlapping areas are merged as they arrive. On a flush the remaining rectangles are replaced by
+ * their bounding box if they cover most of it, or if there are more than {@link #MAX_RECTS} of them
+ */
+public class RepaintScheduler {
+    //minimum time between two flushes
+    private static final int FRAME_MILLIS = 16;
+    //more rectangles are merged into their bounding box
+    private static final int MAX_RECTS = 8;
+    //rectangles covering at least this fraction of their bounding box are flushed as the bounding box
+    private static final double DENSITY = 0.5;
+
+    //Metrics
+    //time from the first dirty area of a frame until the repaint was requested
+    private static final Histogram APPLY_TO_REPAINT = Metrics.histogram("ui.applyToRepaint", Histogram.NANOS);
+    private static final Counter REQUESTED = Metrics.counter("ui.repaint.requested");
+    private static final Counter FLUSHED = Metrics.counter("ui.repaint.flushed");
+
+    //receives the coalesced rectangles in cell-coordinates on the EDT
+    private final Consumer<Rectangle> target;
+
+    //dirty rectangles in cell-coordinates, guarded by this
+    private List<Rectangle> pending = new ArrayList<>();
+    private boolean scheduled;
+    //time the first pending rectangle was added, from Metrics.now()
+    private long firstAdded;
+
+    private final Timer timer;
+    private long lastFlush;
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong frames = new AtomicLong();
+
+    /**
+     * @param target receives the coalesced dirty rectangles in cell-coordinates on the EDT
+     */
+    public RepaintScheduler(Consumer<Rectangle> target) {
+        this.target = target;
+        timer = new Timer(FRAME_MILLIS, e -> flush());
+        timer.setRepeats(false);
+    }
+
+    /**
+     * Marks the cells of the given update as dirty, single cells are kept apart if there are only a few
+     * @param update the changed cells
+     */
+    public void add(TileUpdate update) {
+        if (update.size() <= MAX_RECTS) {
+            for (int n = 0; n < update.size(); n++)
+                add(update.getX(n), update.getY(n), update.getX(n), update.getY(n));
+        } else {
+            add(update.getMinX(), update.getMinY(), update.getMaxX(), update.getMaxY());
+        }
+    }
+
+    /**
+     * Marks the given area of the grid as dirty
+     * @param xStart Start x-coordinate
+     * @param yStart Start y-coordinate
+     * @param xEnd End x-coordinate
+     * @param yEnd End y-coordinate
+     */
+    public void add(int xStart, int yStart, int xEnd, int yEnd) {
+        requested.incrementAndGet();
+        REQUESTED.increment();
+        Rectangle rect = new Rectangle(xStart, yStart, xEnd - xStart + 1, yEnd - yStart + 1);
+
+        synchronized (this) {
+            merge(rect);
+            if (pending.size() > MAX_RECTS)
+                collapse();
+
+            if (scheduled)
+                return;
+            scheduled = true;
+            firstAdded = Metrics.now();
+        }
+        SwingUtilities.invokeLater(this::schedule);
+    }
+
+    /**
+     * Adds the rectangle to the pending ones, merging it with every rectangle it touches
+     */
+    private void merge(Rectangle rect) {
+        boolean merged;
+        do {
+            merged = false;
+            for (int n = 0; n < pending.size(); n++) {
+                Rectangle other = pending.get(n);
+                //grown by one cell, so adjacent rectangles are merged as well
+                if (other.x <= rect.x + rect.width && rect.x <= other.x + other.width
+                        && other.y <= rect.y + rect.height && rect.y <= other.y + other.height) {
+                    rect.add(other);
+                    pending.remove(n);
+                    merged = true;
+                    break;
+                }
+            }
+        } while (merged);
+        pending.add(rect);
+    }
+
+    /**
+     * Replaces all pending rectangles by their bounding box
+     */
+    private void collapse() {
+        Rectangle bounds = new Rectangle(pending.get(0));
+        for (Rectangle rect : pending)
+            bounds.add(rect);
+        pending.clear();
+        pending.add(bounds);
+    }
+
+    /**
+     * Flushes right away or at the start of the next frame, called on the EDT
+     */
+    private void schedule() {
+        long wait = lastFlush + FRAME_MILLIS - System.currentTimeMillis();
+        if (wait <= 0) {
+            flush();
+            return;
+        }
+        timer.setInitialDelay((int) wait);
+        timer.restart();
+    }
+
+    private void flush() {
+        List<Rectangle> rects;
+        long start;
+        synchronized (this) {
+            rects = pending;
+            pending = new ArrayList<>();
+            scheduled = false;
+            start = firstAdded;
+        }
+        lastFlush = System.currentTimeMillis();
+        if (rects.isEmpty())
+            return;
+
+        //dense rectangles are cheaper as a single one
+        Rectangle bounds = new Rectangle(rects.get(0));
+        long area = 0;
+        for (Rectangle rect : rects) {
+            bounds.add(rect);
+            area += (long) rect.width * rect.height;
+        }
+        if (rects.size() > 1 && area >= DENSITY * bounds.width * bounds.height)
+            rects = List.of(bounds);
+
+        frames.incrementAndGet();
+        flushed.addAndGet(rects.size());
+        FLUSHED.add(rects.size());
+        rects.forEach(target);
+        APPLY_TO_REPAINT.recordSince(start);
+    }
+
+    /**
+     * @return amount of dirty rectangles added
+     */
+    public long getRequested() {
+        return requested.get();
+    }
+
+    /**
+     * @return amount of rectangles passed on after coalescing
+     */
+    public long getFlushed() {
+        return flushed.get();
+    }
+
+    /**
+     * @return amount of flushes with at least one rectangle
+     */
+    public long getFrames() {
+        return frames.get();
+    }
+
+    /**
+     * Cancels a pending flush
+     */
+    public void stop() {
+        timer.stop();
+    }
+
+    @Override
+    public String toString() {
+        return "RepaintScheduler{" +
+                "requested=" + getRequested() +
+                ", flushed=" + getFlushed() +
+                ", frames=" + getFrames() +
+                '}';
+    }
+}
@@ -0,0 +1,135 @@
+package veraimt.minesweeper.ui;
+
+import veraimt.minesweeper.game.Board;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Every possible appearance of a cell pre-rendered once for a cell size, laid out side by side in a single image.
+ * Drawing a cell is then a single image copy instead of a 3D rect, font metrics, text and a scaled image
+ */
+public class SpriteAtlas {
+
+    //Sprites 0 - 8 are visible Tiles with the corresponding count
+    public static final int HIDDEN = 9;
+    public static final int FLAG = 10;
+    public static final int BOMB = 11;
+    public static final int FLAGGED_BOMB = 12;
+    public static final int SPRITES = 13;
+
+    //Text colors for numbers on Cells
+    private static final Color[] COLORS = {Color.BLUE, Color.CYAN, Color.GREEN, Color.YELLOW,
+            Color.ORANGE, Color.RED, Color.MAGENTA, Color.BLACK};
+
+    /**
+     * Returns the Color for the number on a Tile with the given count or null if the count is 0
+     * @param count count of the Tile to get the Color for
+     * @return the Color for the Tile if count != 0 otherwise null
+     */
+    static Color getTileColor(int count) {
+        if (count == 0 || count > COLORS.length)
+            return null;
+        return COLORS[count-1];
+    }
+
+    /**
+     * Returns the sprite showing the given cell in its current state
+     * @param board Board containing the cell
+     * @param i index of the cell
+     * @return the sprite of the cell
+     */
+    public static int spriteOf(Board board, int i) {
+        int cell = board.get(i);
+        boolean flag = (cell & Board.FLAG) != 0;
+        if ((cell & Board.VISIBLE) == 0)
+            return flag ? FLAG : HIDDEN;
+        if ((cell & Board.MINE) != 0)
+            return flag ? FLAGGED_BOMB : BOMB;
+        return cell & Board.COUNT_MASK;
+    }
+
+    public final int cellSize;
+    private final BufferedImage atlas;
+
+    /**
+     * Renders all sprites for the given cell size
+     * @param cellSize width and height of a cell in pixels
+     * @param flagImg image of a Flag
+     * @param bombImg image of a Bomb
+     */
+    public SpriteAtlas(int cellSize, Image flagImg, Image bombImg) {
+        if (cellSize <= 0)
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        this.cellSize = cellSize;
+        atlas = new BufferedImage(SPRITES * cellSize, cellSize, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g = atlas.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(new Font("Serif", Font.BOLD, Math.max(1, (int) (cellSize * 0.8))));
+
+            for (int count = 0; count <= 8; count++)
+                render(g, count, true, null, count);
+            render(g, HIDDEN, false, null, 0);
+            render(g, FLAG, false, flagImg, 0);
+            render(g, BOMB, true, bombImg, 0);
+            render(g, FLAGGED_BOMB, true, flagImg, 0);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Renders a single sprite into the atlas
+     * @param sprite position of the sprite in the atlas
+     * @param visible if the cell is drawn lowered
+     * @param img image drawn at the center of the cell, may be null
+     * @param count number drawn at the center of the cell, 0 for none
+     */
+    private void render(Graphics2D g, int sprite, boolean visible, Image img, int count) {
+        //pixel coordinates: origin of the cell (top-left corner)
+        int xOrigin = sprite * cellSize;
+
+        //drawing Cell
+        g.setColor(Color.LIGHT_GRAY);
+        //                                           Cell is raised if the Tile is not visible
+        g.fill3DRect(xOrigin, 0, cellSize, cellSize, !visible);
+
+        //pixel coordinates: center of the cell
+        int xCenter = xOrigin + cellSize / 2;
+        int yCenter = cellSize / 2;
+
+        if (img != null) {
+            int imgSize = cellSize * 2 / 3;
+            g.drawImage(img, xCenter - imgSize / 2, yCenter - imgSize / 2, imgSize, imgSize, null);
+        }
+
+        Color color = getTileColor(count);
+        if (color != null) {
+            g.setColor(color);
+            String num = String.valueOf(count);
+
+            //determining width and height of the number
+            FontMetrics fm = g.getFontMetrics();
+            int w = fm.stringWidth(num);
+            int h = fm.getAscent();
+
+            //drawing the number at the center of the cell with offset, so it appears at the right position
+            g.drawString(num, xCenter - (w / 2), yCenter + (h / 4));
+        }
+    }
+
+    /**
+     * Draws a sprite with its top-left corner at the given pixel-coordinates
+     * @param g Graphics used for drawing
+     * @param sprite the sprite to draw
+     * @param x x-pixel-coordinate
+     * @param y y-pixel-coordinate
+     */
+    public void draw(Graphics g, int sprite, int x, int y) {
+        int sx = sprite * cellSize;
+        g.drawImage(atlas, x, y, x + cellSize, y + cellSize, sx, 0, sx + cellSize, cellSize, null);
+    }
+}
@@ -0,0 +1,71 @@
+package veraimt.minesweeper.ui;
+
+/**
+ * Mapping between cell and pixel coordinates of the game grid.
+ * A zoom either draws every cell with {@code cellSize} pixels, or with a {@code level} above 0 combines
+ * 2^level * 2^level cells into a single pixel
+ * @param cellSize width and height of a cell in pixels, 1 if level is above 0
+ * @param level binary logarithm of the cells per pixel in each direction
+ */
+public record Zoom(int cellSize, int level) {
+
+    //Zoom levels from furthest out to closest in
+    public static final Zoom[] LEVELS = {
+            new Zoom(1, 6), new Zoom(1, 5), new Zoom(1, 4), new Zoom(1, 3), new Zoom(1, 2), new Zoom(1, 1),
+            new Zoom(1, 0), new Zoom(2, 0), new Zoom(4, 0), new Zoom(8, 0), new Zoom(12, 0), new Zoom(18, 0),
+            new Zoom(BoardRenderer.CELL_SIZE, 0), new Zoom(45, 0), new Zoom(60, 0)
+    };
+    //Zoom level of BoardRenderer.CELL_SIZE
+    public static final int DEFAULT = 12;
+
+    public Zoom {
+        if (cellSize <= 0 || level < 0 || (level > 0 && cellSize != 1))
+            throw new IllegalArgumentException("Invalid zoom: cellSize=" + cellSize + ", level=" + level);
+    }
+
+    /**
+     * @param cell x- or y-coordinate of a cell
+     * @return pixel-coordinate of the start of the cell
+     */
+    public int toPixel(int cell) {
+        return level > 0 ? cell >> level : cell * cellSize;
+    }
+
+    /**
+     * @param cell x- or y-coordinate of a cell
+     * @return pixel-coordinate after the end of the cell
+     */
+    public int toPixelEnd(int cell) {
+        return level > 0 ? (cell >> level) + 1 : (cell + 1) * cellSize;
+    }
+
+    /**
+     * @param pixel x- or y-pixel-coordinate
+     * @return coordinate of the (first) cell at the pixel
+     */
+    public int toCell(int pixel) {
+        return level > 0 ? pixel << level : pixel / cellSize;
+    }
+
+    /**
+     * @param cells width or height of the grid
+     * @return width or height of the grid in pixels
+     */
+    public int gridPixels(int cells) {
+        return cells == 0 ? 0 : toPixelEnd(cells - 1);
+    }
+
+    /**
+     * @return pixels per cell in each direction, below 1 if several cells are combined into a pixel
+     */
+    public double scale() {
+        return level > 0 ? 1.0 / (1 << level) : cellSize;
+    }
+
+    /**
+     * @return true if single cells can be clicked at this zoom
+     */
+    public boolean isClickable() {
+        return level == 0;
+    }
+}
@@ -0,0 +1,78 @@
+package veraimt.minesweeper.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardGeneratorTest {
+
+    @Test
+    void placesExactlyTheMinesOutsideTheFirstClick() {
+        SplittableRandom random = new SplittableRandom(4);
+        for (int round = 0; round < 1000; round++) {
+            int width = 1 + random.nextInt(25);
+            int height = 1 + random.nextInt(25);
+            Board board = new Board(width, height);
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            int safeZone = (Math.min(width - 1, x + 1) - Math.max(0, x - 1) + 1)
+                    * (Math.min(height - 1, y + 1) - Math.max(0, y - 1) + 1);
+            //up to a completely filled board
+            int mines = random.nextInt(board.size() - safeZone + 1);
+
+            BoardGenerator.placeMines(board, mines, x, y, random);
+
+            int placed = 0;
+            for (int i = 0; i < board.size(); i++) {
+                if (!board.isMine(i))
+                    continue;
+                placed++;
+                boolean inSafeZone = Math.abs(board.xOf(i) - x) <= 1 && Math.abs(board.yOf(i) - y) <= 1;
+                assertFalse(inSafeZone, "mine at " + board.xOf(i) + "," + board.yOf(i) + " next to " + x + "," + y);
+            }
+            assertEquals(mines, placed);
+            for (int i = 0; i < board.size(); i++)
+                assertEquals(BoardTest.countMines(board, i), board.getCount(i));
+        }
+    }
+
+    @Test
+    void everyCellOutsideTheFirstClickCanGetAMine() {
+        SplittableRandom random = new SplittableRandom(5);
+        int[] hits = new int[81];
+        for (int round = 0; round < 2000; round++) {
+            Board board = new Board(9, 9);
+            BoardGenerator.placeMines(board, 10, 0, 0, random);
+            for (int i = 0; i < board.size(); i++) {
+                if (board.isMine(i))
+                    hits[i]++;
+            }
+        }
+        for (int i = 0; i < hits.length; i++) {
+            boolean inSafeZone = i % 9 <= 1 && i / 9 <= 1;
+            if (inSafeZone)
+                assertEquals(0, hits[i]);
+            else
+                //10 of 77 cells, about 260 hits expected
+                assertTrue(hits[i] > 150, "cell " + i + " got " + hits[i] + " mines");
+        }
+    }
+
+    @Test
+    void sameSeedSameLayout() {
+        Board a = new Board(30, 16);
+        Board b = new Board(30, 16);
+        BoardGenerator.placeMines(a, 99, 3, 7, new SplittableRandom(42));
+        BoardGenerator.placeMines(b, 99, 3, 7, new SplittableRandom(42));
+        for (int i = 0; i < a.size(); i++)
+            assertEquals(a.get(i), b.get(i));
+    }
+
+    @Test
+    void rejectsTooManyMines() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BoardGenerator.placeMines(new Board(3, 3), 1, 1, 1, new SplittableRandom(1)));
+    }
+}
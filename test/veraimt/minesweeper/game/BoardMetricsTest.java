@@ -0,0 +1,139 @@
+package veraimt.minesweeper.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardMetricsTest {
+
+    /**
+     * Creates a board from rows of '*' for Bombs and '.' for safe cells
+     */
+    private static Board board(String... rows) {
+        Board board = new Board(rows[0].length(), rows.length);
+        for (int y = 0; y < rows.length; y++) {
+            for (int x = 0; x < rows[y].length(); x++) {
+                if (rows[y].charAt(x) == '*')
+                    board.setMine(board.index(x, y), true);
+            }
+        }
+        board.computeCounts();
+        return board;
+    }
+
+    /**
+     * Counts the 8-connected regions of the matching cells with a flood fill from every unvisited one
+     */
+    private static int regions(Board board, IntPredicate matches) {
+        boolean[] visited = new boolean[board.size()];
+        int[] neighbours = new int[8];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int regions = 0;
+        for (int start = 0; start < board.size(); start++) {
+            if (visited[start] || !matches.test(start))
+                continue;
+            regions++;
+            visited[start] = true;
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                int n = board.neighbours(queue.poll(), neighbours);
+                for (int k = 0; k < n; k++) {
+                    int i = neighbours[k];
+                    if (!visited[i] && matches.test(i)) {
+                        visited[i] = true;
+                        queue.add(i);
+                    }
+                }
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * Reference of {@link BoardMetrics#of(Board)} looking at every cell and its neighbours
+     */
+    private static BoardMetrics naive(Board board) {
+        IntPredicate zero = i -> !board.isMine(i) && board.getCount(i) == 0;
+        int openings = regions(board, zero);
+        int safeRegions = regions(board, i -> !board.isMine(i));
+
+        int isolated = 0;
+        int[] neighbours = new int[8];
+        for (int i = 0; i < board.size(); i++) {
+            if (board.isMine(i) || board.getCount(i) == 0)
+                continue;
+            boolean bordersOpening = false;
+            int n = board.neighbours(i, neighbours);
+            for (int k = 0; k < n; k++)
+                bordersOpening |= zero.test(neighbours[k]);
+            if (!bordersOpening)
+                isolated++;
+        }
+        return new BoardMetrics(openings + isolated, openings, isolated, safeRegions);
+    }
+
+    @Test
+    void handBuiltLayouts() {
+        //a single opening
+        assertEquals(new BoardMetrics(1, 1, 0, 1), BoardMetrics.of(board(
+                "...",
+                "...",
+                "...")));
+        //a ring of 1s around the Bomb, connected but without an opening
+        assertEquals(new BoardMetrics(8, 0, 8, 1), BoardMetrics.of(board(
+                "...",
+                ".*.",
+                "...")));
+        //the Bomb splits the row into two openings
+        assertEquals(new BoardMetrics(2, 2, 0, 2), BoardMetrics.of(board("..*..")));
+        //corners only touch the center diagonally
+        assertEquals(new BoardMetrics(5, 0, 5, 1), BoardMetrics.of(board(
+                ".*.",
+                "*.*",
+                ".*.")));
+        //a U shaped opening whose arms are only joined in the last rows
+        assertEquals(new BoardMetrics(1, 1, 0, 1), BoardMetrics.of(board(
+                "...*...",
+                "...*...",
+                "...*...",
+                ".......",
+                ".......")));
+        //a wall splits the safe cells, the 1s next to it still border the openings
+        assertEquals(new BoardMetrics(2, 2, 0, 2), BoardMetrics.of(board(
+                "..*..",
+                "..*..",
+                "..*..")));
+        assertEquals(new BoardMetrics(0, 0, 0, 0), BoardMetrics.of(board(
+                "**",
+                "**")));
+        assertEquals(new BoardMetrics(1, 1, 0, 1), BoardMetrics.of(board(".")));
+    }
+
+    @Test
+    void matchesTheFloodFillCount() {
+        SplittableRandom random = new SplittableRandom(23);
+        for (int round = 0; round < 500; round++) {
+            int width = 1 + random.nextInt(70);
+            int height = 1 + random.nextInt(40);
+            double mines = 0.02 + random.nextDouble() * 0.4;
+            Board board = new Board(width, height);
+            for (int i = 0; i < board.size(); i++) {
+                if (random.nextDouble() < mines)
+                    board.setMine(i, true);
+            }
+            board.computeCounts();
+            //visibility and Flags are ignored
+            for (int i = 0; i < board.size(); i++) {
+                if (random.nextInt(5) == 0)
+                    board.setVisible(i, true);
+                if (random.nextInt(7) == 0)
+                    board.setFlag(i, true);
+            }
+            assertEquals(naive(board), BoardMetrics.of(board), width + "*" + height + " round " + round);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package veraimt.minesweeper.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardPoolTest {
+
+    @Test
+    void keepsTheFirstClickFree() {
+        SplittableRandom random = new SplittableRandom(6);
+        for (int round = 0; round < 2000; round++) {
+            int x = 1 + random.nextInt(7);
+            int y = 1 + random.nextInt(7);
+            int[] bombs = BoardPool.layout(9, 9, 10, random.nextLong(), x, y);
+
+            Set<Integer> distinct = new HashSet<>();
+            for (int i : bombs) {
+                assertTrue(distinct.add(i), "two Bombs at " + i);
+                assertFalse(Math.abs(i % 9 - x) <= 1 && Math.abs(i / 9 - y) <= 1,
+                        "Bomb at " + i % 9 + "," + i / 9 + " next to " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void everyCellOutsideTheFirstClickCanGetABomb() {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] hits = new int[81];
+        for (int round = 0; round < 2000; round++) {
+            for (int i : BoardPool.layout(9, 9, 10, random.nextLong(), 1, 1))
+                hits[i]++;
+        }
+        //the layouts don't wrap around, so the cells at the opposite borders get Bombs as well
+        for (int i = 0; i < hits.length; i++) {
+            if (i % 9 > 2 || i / 9 > 2)
+                //10 of 72 cells, about 280 hits expected
+                assertTrue(hits[i] > 150, "cell " + i + " got " + hits[i] + " Bombs");
+        }
+    }
+
+    @Test
+    void sameSeedSameLayout() {
+        assertArrayEquals(BoardPool.layout(30, 16, 99, 42, 3, 7), BoardPool.layout(30, 16, 99, 42, 3, 7));
+    }
+
+    @Test
+    void firstClickAtTheBorderIsPlacedDirectly() throws InterruptedException {
+        BoardPool pool = new BoardPool(1);
+        try {
+            pool.prepare(9, 9, 10);
+            while (pool.size() == 0)
+                Thread.sleep(1);
+
+            Game game = new Game(9, 9, 10);
+            pool.place(game, 0, 0);
+            assertEquals(1, pool.getMisses());
+            assertEquals(0, pool.getHits());
+            for (int i = 0; i < game.board.size(); i++)
+                assertFalse(game.board.isMine(i) && i % 9 <= 1 && i / 9 <= 1);
+
+            assertThrows(IllegalArgumentException.class, () -> BoardPool.layout(9, 9, 10, 1, 0, 4));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
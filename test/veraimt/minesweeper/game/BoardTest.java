@@ -0,0 +1,111 @@
+package veraimt.minesweeper.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardTest {
+
+    /**
+     * Counts the mines around the given cell by looking at every neighbour
+     */
+    static int countMines(Board board, int index) {
+        int[] neighbours = new int[8];
+        int n = board.neighbours(index, neighbours);
+        int count = 0;
+        for (int k = 0; k < n; k++) {
+            if (board.isMine(neighbours[k]))
+                count++;
+        }
+        return count;
+    }
+
+    @Test
+    void neighboursStayInsideTheBoard() {
+        Board board = new Board(5, 4);
+        int[] neighbours = new int[8];
+        assertEquals(3, board.neighbours(board.index(0, 0), neighbours));
+        assertEquals(5, board.neighbours(board.index(2, 0), neighbours));
+        assertEquals(8, board.neighbours(board.index(2, 2), neighbours));
+        assertEquals(3, board.neighbours(board.index(4, 3), neighbours));
+        assertEquals(0, new Board(1, 1).neighbours(0, neighbours));
+    }
+
+    @Test
+    void bitsAreIndependent() {
+        Board board = new Board(3, 3);
+        int center = board.index(1, 1);
+        board.placeMine(board.index(0, 0));
+        board.setVisible(center, true);
+        board.setFlag(center, true);
+        assertTrue(board.isVisible(center));
+        assertTrue(board.hasFlag(center));
+        assertFalse(board.isMine(center));
+        assertEquals(1, board.getCount(center));
+
+        board.setVisible(center, false);
+        board.setFlag(center, false);
+        assertEquals(1, board.getCount(center));
+        assertEquals(1, board.get(center));
+    }
+
+    @Test
+    void placingAndRemovingMinesUpdatesCounts() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int round = 0; round < 200; round++) {
+            Board board = new Board(1 + random.nextInt(20), 1 + random.nextInt(20));
+            for (int n = 0; n < board.size() * 2; n++) {
+                int i = random.nextInt(board.size());
+                if (random.nextBoolean())
+                    assertEquals(!board.isMine(i), board.placeMine(i));
+                else
+                    assertEquals(board.isMine(i), board.removeMine(i));
+            }
+            for (int i = 0; i < board.size(); i++)
+                assertEquals(countMines(board, i), board.getCount(i), "count of cell " + i);
+        }
+    }
+
+    @Test
+    void computedCountsMatchIncrementalPlacement() {
+        SplittableRandom random = new SplittableRandom(2);
+        for (int round = 0; round < 500; round++) {
+            //widths around and between multiples of the 8 cells of a word
+            int width = 1 + random.nextInt(70);
+            int height = 1 + random.nextInt(30);
+            double density = random.nextDouble();
+            Board computed = new Board(width, height);
+            Board incremental = new Board(width, height);
+            for (int i = 0; i < computed.size(); i++) {
+                if (random.nextDouble() < density) {
+                    computed.setMine(i, true);
+                    incremental.placeMine(i);
+                }
+                //the other bits must survive the computation
+                boolean visible = random.nextInt(4) == 0;
+                boolean flag = random.nextInt(4) == 0;
+                computed.setVisible(i, visible);
+                incremental.setVisible(i, visible);
+                computed.setFlag(i, flag);
+                incremental.setFlag(i, flag);
+            }
+            computed.computeCounts();
+            for (int i = 0; i < computed.size(); i++)
+                assertEquals(incremental.get(i), computed.get(i),
+                        "cell " + i + " of a " + width + "*" + height + " board");
+
+            //counts already set are replaced, not added to
+            incremental.computeCounts();
+            for (int i = 0; i < computed.size(); i++)
+                assertEquals(computed.get(i), incremental.get(i));
+        }
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new Board(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new Board(70_000, 70_000));
+    }
+}
@@ -0,0 +1,146 @@
+package veraimt.minesweeper.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CellStorageTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Writes random bytes and words and checks them against a plain array
+     */
+    private static void checkAgainstArray(CellStorage storage, SplittableRandom random) {
+        byte[] expected = new byte[storage.size()];
+        for (int n = 0; n < 2000; n++) {
+            if (random.nextBoolean() || storage.size() < 8) {
+                int i = random.nextInt(storage.size());
+                byte value = (byte) random.nextInt();
+                storage.set(i, value);
+                expected[i] = value;
+            } else {
+                int i = random.nextInt(storage.size() - 7);
+                long word = random.nextLong();
+                storage.setWord(i, word);
+                for (int k = 0; k < 8; k++)
+                    expected[i + k] = (byte) (word >>> (k * 8));
+            }
+        }
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(expected[i], storage.get(i), "cell " + i);
+        for (int i = 0; i + 8 <= expected.length; i++) {
+            long word = 0;
+            for (int k = 0; k < 8; k++)
+                word |= (expected[i + k] & 0xFFL) << (k * 8);
+            assertEquals(word, storage.getWord(i), "word at " + i);
+        }
+    }
+
+    @Test
+    void bytesAndWordsAreLittleEndian() throws IOException {
+        SplittableRandom random = new SplittableRandom(8);
+        IntFunction<CellStorage> mapped = CellStorage.mapped(directory.resolve("cells"));
+        for (int size : new int[]{1, 7, 8, 9, 63, 1000}) {
+            checkAgainstArray(CellStorage.heap(size), random);
+            checkAgainstArray(CellStorage.direct(size), random);
+            checkAgainstArray(mapped.apply(size), random);
+        }
+    }
+
+    @Test
+    void wordsCrossChunks() throws IOException {
+        //sparse file, only the pages around the chunk border are touched
+        CellStorage storage = CellStorage.mapped(directory.resolve("chunks")).apply((1 << 30) + 16);
+        long word = 0x0807060504030201L;
+        for (int i = (1 << 30) - 8; i <= 1 << 30; i++) {
+            storage.setWord(i, word);
+            assertEquals(word, storage.getWord(i));
+            for (int k = 0; k < 8; k++)
+                assertEquals(k + 1, storage.get(i + k));
+        }
+    }
+
+    @Test
+    void gamesPlayTheSameOnEveryStorage() throws IOException {
+        SplittableRandom random = new SplittableRandom(9);
+        for (int round = 0; round < 20; round++) {
+            int width = 4 + random.nextInt(60);
+            int height = 4 + random.nextInt(60);
+            int bombs = random.nextInt(width * height / 4);
+            long seed = random.nextLong();
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+
+            Game heap = new Game(new Board(width, height, CellStorage::heap), bombs);
+            Game direct = new Game(new Board(width, height, CellStorage::direct), bombs);
+            Game mapped = new Game(new Board(width, height, CellStorage.mapped(directory.resolve("board" + round))),
+                    bombs);
+            for (Game game : new Game[]{heap, direct, mapped})
+                game.randomize(x, y, seed);
+
+            //the same clicks on all three
+            for (int n = 0; n < 20; n++) {
+                int cx = random.nextInt(width);
+                int cy = random.nextInt(height);
+                boolean flag = random.nextInt(3) == 0;
+                for (Game game : new Game[]{heap, direct, mapped}) {
+                    if (flag)
+                        game.toggleFlag(cx, cy);
+                    else
+                        game.search(cx, cy);
+                }
+            }
+
+            for (int i = 0; i < heap.board.size(); i++) {
+                assertEquals(heap.board.get(i), direct.board.get(i), "cell " + i);
+                assertEquals(heap.board.get(i), mapped.board.get(i), "cell " + i);
+            }
+            assertEquals(heap.getState(), direct.getState());
+            assertEquals(heap.getState(), mapped.getState());
+        }
+    }
+
+    @Test
+    void mappedStoragesAllocatedConcurrentlyDontOverlap() throws Exception {
+        IntFunction<CellStorage> mapped = CellStorage.mapped(directory.resolve("shared"));
+        int threads = 8;
+        CellStorage[] storages = new CellStorage[threads * 20];
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int n = thread; n < storages.length; n += threads) {
+                        CellStorage storage = mapped.apply(1000 + n);
+                        for (int i = 0; i < storage.size(); i++)
+                            storage.set(i, (byte) n);
+                        storages[n] = storage;
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+                future.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int n = 0; n < storages.length; n++) {
+            for (int i = 0; i < storages[n].size(); i++)
+                assertEquals((byte) n, storages[n].get(i), "storage " + n + " cell " + i);
+        }
+    }
+}
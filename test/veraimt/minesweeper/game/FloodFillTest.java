@@ -0,0 +1,117 @@
+package veraimt.minesweeper.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FloodFillTest {
+
+    /**
+     * Creates a board with randomly placed mines and Flags, some cells are already visible
+     */
+    static Board randomBoard(int width, int height, double mines, double flags, SplittableRandom random) {
+        Board board = new Board(width, height);
+        for (int i = 0; i < board.size(); i++) {
+            if (random.nextDouble() < mines)
+                board.setMine(i, true);
+        }
+        board.computeCounts();
+        for (int i = 0; i < board.size(); i++) {
+            if (random.nextDouble() < flags)
+                board.setFlag(i, true);
+            else if (!board.isMine(i) && random.nextDouble() < 0.02)
+                board.setVisible(i, true);
+        }
+        return board;
+    }
+
+    /**
+     * Breadth first reference of the reveal: the visible cells after revealing the start
+     */
+    static boolean[] expected(Board board, int start) {
+        boolean[] visible = new boolean[board.size()];
+        for (int i = 0; i < board.size(); i++)
+            visible[i] = board.isVisible(i);
+        if (board.isMine(start) || visible[start])
+            return visible;
+
+        int[] neighbours = new int[8];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        visible[start] = true;
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            int i = queue.poll();
+            if (board.getCount(i) != 0)
+                continue;
+            int n = board.neighbours(i, neighbours);
+            for (int k = 0; k < n; k++) {
+                int c = neighbours[k];
+                if (!visible[c] && !board.isMine(c)) {
+                    visible[c] = true;
+                    queue.add(c);
+                }
+            }
+        }
+        return visible;
+    }
+
+    @Test
+    void revealsTheConnectedRegion() {
+        SplittableRandom random = new SplittableRandom(2);
+        for (int round = 0; round < 300; round++) {
+            Board board = randomBoard(1 + random.nextInt(40), 1 + random.nextInt(40), random.nextDouble() * 0.3,
+                    0.05, random);
+            int start = random.nextInt(board.size());
+            boolean[] expected = expected(board, start);
+            boolean[] wasVisible = new boolean[board.size()];
+            int flagsOnRevealed = 0;
+            for (int i = 0; i < board.size(); i++) {
+                wasVisible[i] = board.isVisible(i);
+                if (expected[i] && !wasVisible[i] && board.hasFlag(i))
+                    flagsOnRevealed++;
+            }
+
+            CellList revealed = new CellList();
+            int removedFlags = new FloodFill(board).reveal(start, revealed);
+
+            assertEquals(flagsOnRevealed, removedFlags);
+            for (int i = 0; i < board.size(); i++) {
+                assertEquals(expected[i], board.isVisible(i), "visibility of cell " + i);
+                if (expected[i] && !wasVisible[i])
+                    assertFalse(board.hasFlag(i), "Flag left on revealed cell " + i);
+            }
+            int[] cells = revealed.toArray();
+            Arrays.sort(cells);
+            for (int n = 0; n < cells.length; n++) {
+                assertFalse(wasVisible[cells[n]]);
+                if (n > 0)
+                    assertNotEquals(cells[n - 1], cells[n], "cell revealed twice");
+            }
+            assertEquals(countNewlyVisible(board, wasVisible), cells.length);
+        }
+    }
+
+    @Test
+    void ignoresMinesAndVisibleCells() {
+        Board board = new Board(3, 3);
+        board.placeMine(0);
+        board.setVisible(8, true);
+        CellList revealed = new CellList();
+        assertEquals(0, new FloodFill(board).reveal(0, revealed));
+        assertEquals(0, new FloodFill(board).reveal(8, revealed));
+        assertTrue(revealed.isEmpty());
+    }
+
+    private static int countNewlyVisible(Board board, boolean[] wasVisible) {
+        int count = 0;
+        for (int i = 0; i < board.size(); i++) {
+            if (board.isVisible(i) && !wasVisible[i])
+                count++;
+        }
+        return count;
+    }
+}
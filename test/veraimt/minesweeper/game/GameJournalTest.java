@@ -0,0 +1,218 @@
+package veraimt.minesweeper.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameJournalTest {
+
+    /**
+     * The grid and state of the recorded game after the journal reached the given length
+     */
+    private record Snapshot(int length, byte[] cells, Game.GameState state) {
+    }
+
+    /**
+     * Applies actions to a game and journals them like the game loop does, remembering the game after each record
+     */
+    private static class Recorder {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final GameJournal journal = new GameJournal(out);
+        final List<Snapshot> snapshots = new ArrayList<>();
+        Game game;
+
+        void begin(Game game) {
+            this.game = game;
+            journal.begin(game);
+            snapshot();
+        }
+
+        void randomize(int x, int y, long seed) {
+            game.randomize(x, y, seed);
+            journal.placed(game, game.board.index(x, y));
+            snapshot();
+        }
+
+        void pooled(int x, int y, long seed) {
+            game.placeBombs(BoardPool.layout(game.width, game.height, game.getBombs(), seed, x, y),
+                    OptionalLong.of(seed));
+            journal.placed(game, game.board.index(x, y));
+            snapshot();
+        }
+
+        void search(int i) {
+            game.search(game.board.xOf(i), game.board.yOf(i));
+            journal.search(i);
+            snapshot();
+        }
+
+        void flag(int i) {
+            game.toggleFlag(game.board.xOf(i), game.board.yOf(i));
+            journal.flag(i);
+            snapshot();
+        }
+
+        void chord(int i) {
+            game.chord(game.board.xOf(i), game.board.yOf(i));
+            journal.chord(i);
+            snapshot();
+        }
+
+        private void snapshot() {
+            journal.flush();
+            snapshots.add(new Snapshot(out.size(), cells(game), game.getState()));
+        }
+
+        /**
+         * Plays random searches, Flags and chords until the game ends or the moves run out
+         */
+        void play(SplittableRandom random, int moves) {
+            Board board = game.board;
+            for (int n = 0; n < moves && game.getState() == Game.GameState.OK; n++) {
+                int i = random.nextInt(board.size());
+                int move = random.nextInt(4);
+                if (move == 0 && board.isVisible(i) && board.getCount(i) > 0)
+                    chord(i);
+                else if (move <= 1 || board.isMine(i) && random.nextInt(8) != 0)
+                    flag(i);
+                else
+                    search(i);
+            }
+        }
+    }
+
+    private static byte[] cells(Game game) {
+        byte[] cells = new byte[game.board.size()];
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = (byte) game.board.get(i);
+        return cells;
+    }
+
+    private static List<Game> replay(byte[] journal) throws IOException {
+        List<Game> games = new ArrayList<>();
+        try (JournalReplay replay = new JournalReplay(new ByteArrayInputStream(journal))) {
+            for (Game game = replay.next(); game != null; game = replay.next())
+                games.add(game);
+        }
+        return games;
+    }
+
+    @Test
+    void replayRebuildsTheRecordedGames() throws IOException {
+        SplittableRandom random = new SplittableRandom(19);
+        Recorder recorder = new Recorder();
+        List<Game> recorded = new ArrayList<>();
+        for (int round = 0; round < 30; round++) {
+            int width = 9 + random.nextInt(30);
+            int height = 9 + random.nextInt(20);
+            recorder.begin(new Game(width, height, width * height / 6));
+            int x = 1 + random.nextInt(width - 2);
+            int y = 1 + random.nextInt(height - 2);
+            if (round % 3 == 0)
+                recorder.pooled(x, y, random.nextLong());
+            else
+                recorder.randomize(x, y, random.nextLong());
+            recorder.search(recorder.game.board.index(x, y));
+            recorder.play(random, 200);
+            recorded.add(recorder.game);
+        }
+
+        List<Game> replayed = replay(recorder.out.toByteArray());
+        assertEquals(recorded.size(), replayed.size());
+        for (int n = 0; n < recorded.size(); n++) {
+            assertArrayEquals(cells(recorded.get(n)), cells(replayed.get(n)), "game " + n);
+            assertEquals(recorded.get(n).getState(), replayed.get(n).getState(), "game " + n);
+            assertEquals(recorded.get(n).flags, replayed.get(n).flags, "game " + n);
+        }
+    }
+
+    @Test
+    void runningGamesAreRestored() throws IOException {
+        SplittableRandom random = new SplittableRandom(20);
+        Recorder before = new Recorder();
+        before.begin(new Game(30, 16, 60));
+        before.randomize(15, 8, random.nextLong());
+        before.search(before.game.board.index(15, 8));
+        before.play(random, 20);
+        assertEquals(Game.GameState.OK, before.game.getState(), "the seed should leave the game running");
+
+        //a new journal starts with the running game
+        Recorder after = new Recorder();
+        after.begin(before.game);
+        after.play(random, 100);
+
+        Game replayed = replay(after.out.toByteArray()).get(0);
+        assertArrayEquals(cells(after.game), cells(replayed));
+        assertEquals(after.game.getState(), replayed.getState());
+        assertEquals(after.game.getHiddenTiles(), replayed.getHiddenTiles());
+    }
+
+    @Test
+    void cutOffJournalEndsWithTheLastCompleteRecord() throws IOException {
+        SplittableRandom random = new SplittableRandom(21);
+        Recorder recorder = new Recorder();
+        recorder.begin(new Game(16, 16, 40));
+        recorder.randomize(8, 8, random.nextLong());
+        recorder.search(recorder.game.board.index(8, 8));
+        recorder.play(random, 40);
+        //a running game written as a RESTORE record ends the journal
+        recorder.begin(recorder.game);
+
+        byte[] journal = recorder.out.toByteArray();
+        int first = recorder.snapshots.get(0).length();
+        for (int length = first; length <= journal.length; length++) {
+            List<Game> games = replay(Arrays.copyOf(journal, length));
+            Game game = games.get(games.size() - 1);
+
+            //the last snapshot within the length, a cut off second game starts blank
+            Snapshot expected = null;
+            for (Snapshot snapshot : recorder.snapshots) {
+                if (snapshot.length() <= length)
+                    expected = snapshot;
+            }
+            boolean second = games.size() == 2;
+            if (second && expected == recorder.snapshots.get(recorder.snapshots.size() - 1)) {
+                assertArrayEquals(expected.cells(), cells(game), "length " + length);
+                assertEquals(expected.state(), game.getState(), "length " + length);
+            } else if (second) {
+                assertArrayEquals(new byte[game.board.size()], cells(game), "length " + length);
+                assertEquals(Game.GameState.BLANK, game.getState(), "length " + length);
+            } else {
+                assertArrayEquals(expected.cells(), cells(game), "length " + length);
+                assertEquals(expected.state(), game.getState(), "length " + length);
+            }
+        }
+    }
+
+    @Test
+    void corruptRecordsAreRejected() throws IOException {
+        Recorder recorder = new Recorder();
+        recorder.begin(new Game(9, 9, 10));
+        byte[] game = recorder.out.toByteArray();
+
+        //RESTORE with the state 2^64-1, a varint that sets the sign bit
+        byte[] negative = Arrays.copyOf(game, game.length + 12);
+        negative[game.length] = GameJournal.RESTORE;
+        negative[game.length + 1] = 0;
+        Arrays.fill(negative, game.length + 2, game.length + 11, (byte) 0xFF);
+        negative[game.length + 11] = 0x01;
+        assertThrows(IOException.class, () -> replay(negative));
+
+        //a search outside the board
+        byte[] outside = Arrays.copyOf(game, game.length + 4);
+        outside[game.length] = GameJournal.SEARCH;
+        outside[game.length + 1] = 0;
+        outside[game.length + 2] = (byte) 0x81;
+        outside[game.length + 3] = 0x01;
+        assertThrows(IOException.class, () -> replay(outside));
+    }
+}
@@ -0,0 +1,52 @@
+package veraimt.minesweeper.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLoopTest {
+
+    @Test
+    void commandsWaitForBombsGeneratedInTheBackground() throws InterruptedException {
+        CompletableFuture<int[]> bombs = new CompletableFuture<>();
+        BombPlacer placer = new BombPlacer() {
+            @Override
+            public void place(Game game, int xFirstClick, int yFirstClick) {
+                fail("the Bombs are generated in the background");
+            }
+
+            @Override
+            public CompletableFuture<int[]> generate(int width, int height, int count, int x, int y) {
+                return bombs;
+            }
+        };
+
+        Game game = new Game(10, 10, 10);
+        CountDownLatch applied = new CountDownLatch(2);
+        GameLoop loop = new GameLoop(game, placer, command -> applied.countDown());
+        try {
+            loop.submit(new GameCommand.Search(9, 9));
+            loop.submit(new GameCommand.Flag(0, 0));
+            //the loop doesn't block, but nothing is applied before the Bombs are placed
+            assertFalse(applied.await(100, TimeUnit.MILLISECONDS));
+            assertEquals(Game.GameState.BLANK, game.getState());
+
+            //a column of Bombs, so the first click only reveals the right side
+            int[] column = new int[10];
+            for (int y = 0; y < 10; y++)
+                column[y] = game.board.index(5, y);
+            bombs.complete(column);
+            assertTrue(applied.await(5, TimeUnit.SECONDS));
+            assertEquals(Game.GameState.OK, game.getState());
+            assertTrue(game.board.isVisible(game.board.index(9, 9)));
+            assertFalse(game.board.isVisible(game.board.index(0, 0)));
+            assertTrue(game.board.hasFlag(game.board.index(0, 0)));
+        } finally {
+            loop.shutdown();
+        }
+    }
+}
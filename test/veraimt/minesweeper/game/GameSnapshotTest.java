@@ -0,0 +1,98 @@
+package veraimt.minesweeper.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Plays a few random moves of a seeded game, the game may end on the way
+     */
+    private static Game play(int width, int height, int bombs, SplittableRandom random) {
+        Game game = new Game(width, height, bombs);
+        game.randomize(width / 2, height / 2, random.nextLong());
+        game.search(width / 2, height / 2);
+        for (int n = 0; n < 40 && game.getState() == Game.GameState.OK; n++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            if (random.nextInt(3) == 0 || game.board.isMine(game.board.index(x, y)))
+                game.toggleFlag(x, y);
+            else
+                game.search(x, y);
+        }
+        return game;
+    }
+
+    private static void assertSameGame(Game expected, Game actual) {
+        assertEquals(expected.width, actual.width);
+        assertEquals(expected.height, actual.height);
+        assertEquals(expected.getBombs(), actual.getBombs());
+        assertEquals(expected.flags, actual.flags);
+        assertEquals(expected.getState(), actual.getState());
+        assertEquals(expected.getPlacedFlags(), actual.getPlacedFlags());
+        assertEquals(expected.getHiddenTiles(), actual.getHiddenTiles());
+        //mines, visible Tiles, Flags and the recomputed counts
+        for (int i = 0; i < expected.board.size(); i++)
+            assertEquals(expected.board.get(i), actual.board.get(i), "cell " + i);
+    }
+
+    @Test
+    void savedGamesLoadTheSame() throws IOException {
+        SplittableRandom random = new SplittableRandom(18);
+        Path file = directory.resolve("save");
+        //sizes around the 64 cells of a plane word and one larger than the read buffer
+        int[][] sizes = {{1, 1}, {8, 8}, {9, 7}, {13, 5}, {30, 16}, {700, 500}};
+        for (int[] size : sizes) {
+            int bombs = size[0] * size[1] / 6;
+            Game game = play(size[0], size[1], bombs, random);
+            long elapsed = random.nextLong(Long.MAX_VALUE);
+            GameSnapshot.save(game, elapsed, file);
+
+            GameSnapshot.Loaded loaded = GameSnapshot.load(file);
+            assertEquals(elapsed, loaded.elapsedMillis());
+            assertSameGame(game, loaded.game());
+        }
+    }
+
+    @Test
+    void blankGameLoadsBlank() throws IOException {
+        Path file = directory.resolve("blank");
+        GameSnapshot.save(new Game(30, 16, 99), 0, file);
+        Game game = GameSnapshot.load(file).game();
+        assertEquals(Game.GameState.BLANK, game.getState());
+        assertEquals(99, game.getBombs());
+        assertEquals(99, game.flags);
+    }
+
+    @Test
+    void loadsOntoTheGivenStorage() throws IOException {
+        Path file = directory.resolve("save");
+        Game game = play(300, 200, 9000, new SplittableRandom(19));
+        GameSnapshot.save(game, 1234, file);
+
+        assertSameGame(game, GameSnapshot.load(file, CellStorage::direct).game());
+        assertSameGame(game, GameSnapshot.load(file, CellStorage.mapped(directory.resolve("cells"))).game());
+    }
+
+    @Test
+    void rejectsCutOffFiles() throws IOException {
+        Path file = directory.resolve("save");
+        GameSnapshot.save(play(30, 16, 99, new SplittableRandom(20)), 0, file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> GameSnapshot.load(file));
+        Files.write(file, Arrays.copyOf(bytes, 20));
+        assertThrows(IOException.class, () -> GameSnapshot.load(file));
+    }
+}
@@ -0,0 +1,134 @@
+package veraimt.minesweeper.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameTest {
+
+    /**
+     * 5*5 game with Bombs at (1,0) and (3,0), the Tile at (2,1) is revealed
+     */
+    private static Game game() {
+        Game game = new Game(5, 5, 2);
+        game.placeBombs(new int[]{game.board.index(1, 0), game.board.index(3, 0)});
+        game.search(2, 1);
+        return game;
+    }
+
+    @Test
+    void chordRevealsTheNeighboursIfTheFlagsMatch() {
+        Game game = game();
+        Board board = game.board;
+        game.toggleFlag(1, 0);
+        game.chord(2, 1);
+        //one Flag around a 2, nothing happens
+        assertFalse(board.isVisible(board.index(2, 0)));
+
+        game.toggleFlag(3, 0);
+        game.chord(2, 1);
+        assertTrue(board.isVisible(board.index(2, 0)));
+        assertEquals(Game.GameState.WIN, game.getState());
+    }
+
+    @Test
+    void chordWithAMisplacedFlagLoses() {
+        Game game = game();
+        game.toggleFlag(1, 0);
+        game.toggleFlag(2, 0);
+        game.chord(2, 1);
+        assertEquals(Game.GameState.LOSE, game.getState());
+    }
+
+    @Test
+    void coordinatesOutsideTheGridAreRejected() {
+        Game game = game();
+        //(5,0) would wrap to (0,1) with a plain index
+        for (int[] c : new int[][]{{5, 0}, {-1, 1}, {0, 5}, {0, -1}}) {
+            assertThrows(IndexOutOfBoundsException.class, () -> game.search(c[0], c[1]));
+            assertThrows(IndexOutOfBoundsException.class, () -> game.toggleFlag(c[0], c[1]));
+            assertThrows(IndexOutOfBoundsException.class, () -> game.chord(c[0], c[1]));
+            assertThrows(IndexOutOfBoundsException.class, () -> game.spawnBomb(c[0], c[1]));
+        }
+        assertFalse(game.board.isVisible(game.board.index(0, 1)));
+        assertFalse(game.board.hasFlag(game.board.index(0, 1)));
+        assertEquals(Game.GameState.OK, game.getState());
+    }
+
+    @Test
+    void revealingTheLastSafeTileWins() {
+        //3*1 with the Bomb in the middle, both sides are 1s and don't flood
+        Game game = new Game(3, 1, 1);
+        game.placeBombs(new int[]{1});
+        assertEquals(2, game.getHiddenTiles());
+
+        game.search(0, 0);
+        assertEquals(1, game.getHiddenTiles());
+        assertEquals(Game.GameState.OK, game.getState());
+
+        game.search(2, 0);
+        assertEquals(0, game.getHiddenTiles());
+        assertEquals(Game.GameState.WIN, game.getState());
+    }
+
+    @Test
+    void flaggingEveryBombWins() {
+        Game game = game();
+        Board board = game.board;
+        game.toggleFlag(1, 0);
+        game.toggleFlag(2, 0);
+        //two Flags but one is misplaced
+        assertEquals(2, game.getPlacedFlags());
+        assertEquals(0, game.flags);
+        assertEquals(Game.GameState.OK, game.getState());
+
+        game.toggleFlag(2, 0);
+        assertEquals(1, game.getPlacedFlags());
+        game.toggleFlag(3, 0);
+        assertEquals(Game.GameState.WIN, game.getState());
+        //the remaining Tiles are revealed
+        assertEquals(0, game.getHiddenTiles());
+        assertTrue(board.isVisible(board.index(4, 4)));
+        assertFalse(board.isVisible(board.index(1, 0)));
+    }
+
+    @Test
+    void restoreCountsTheBoard() {
+        Board board = new Board(5, 5);
+        board.setMine(board.index(1, 0), true);
+        board.setMine(board.index(3, 0), true);
+        board.setFlag(board.index(1, 0), true);
+        board.setFlag(board.index(0, 4), true);
+        for (int y = 1; y < 5; y++)
+            for (int x = 0; x < 4; x++)
+                board.setVisible(board.index(x, y), true);
+        board.setVisible(board.index(0, 4), false);
+
+        Game game = new Game(board, 2);
+        game.restore(Game.GameState.OK, 0);
+        assertEquals(2, game.getBombs());
+        assertEquals(2, game.getPlacedFlags());
+        //(0,0), (2,0), the column from (4,0) to (4,4) and (0,4) under its Flag
+        assertEquals(8, game.getHiddenTiles());
+        assertEquals(2, board.getCount(board.index(2, 0)));
+
+        //moving the misplaced Flag onto the last Bomb wins
+        game.toggleFlag(0, 4);
+        game.toggleFlag(3, 0);
+        assertEquals(Game.GameState.WIN, game.getState());
+        assertEquals(0, game.getHiddenTiles());
+    }
+
+    @Test
+    void restoredGameWinsOnTheLastSafeTile() {
+        Board board = new Board(3, 1);
+        board.setMine(1, true);
+        board.setVisible(0, true);
+
+        Game game = new Game(board, 1);
+        game.restore(Game.GameState.OK, 1);
+        assertEquals(1, game.getHiddenTiles());
+        game.search(2, 0);
+        assertEquals(Game.GameState.WIN, game.getState());
+    }
+}
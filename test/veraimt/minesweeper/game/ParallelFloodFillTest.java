@@ -0,0 +1,63 @@
+package veraimt.minesweeper.game;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelFloodFillTest {
+    //several workers, so the board is split into many stripes even on a single core
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void revealsTheSameCellsAsTheSequentialEngine() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int round = 0; round < 200; round++) {
+            int width = 1 + random.nextInt(120);
+            int height = 1 + random.nextInt(120);
+            double mines = random.nextDouble() * 0.25;
+            long seed = random.nextLong();
+            Board sequential = FloodFillTest.randomBoard(width, height, mines, 0.05, new SplittableRandom(seed));
+            Board parallel = FloodFillTest.randomBoard(width, height, mines, 0.05, new SplittableRandom(seed));
+            FloodFill floodFill = new FloodFill(sequential);
+            ParallelFloodFill parallelFloodFill = new ParallelFloodFill(parallel, POOL);
+
+            //several reveals on the same board, so the stripes are reused
+            for (int n = 0; n < 3; n++) {
+                int start = random.nextInt(width * height);
+                CellList expected = new CellList();
+                CellList actual = new CellList();
+                assertEquals(floodFill.reveal(start, expected), parallelFloodFill.reveal(start, actual),
+                        "removed Flags");
+
+                int[] expectedCells = expected.toArray();
+                int[] actualCells = actual.toArray();
+                Arrays.sort(expectedCells);
+                Arrays.sort(actualCells);
+                assertArrayEquals(expectedCells, actualCells);
+                for (int i = 0; i < sequential.size(); i++)
+                    assertEquals(sequential.get(i), parallel.get(i), "cell " + i);
+            }
+        }
+    }
+
+    @Test
+    void floodsAcrossAllStripes() {
+        //no mines at all, a single reveal crosses every stripe boundary in both directions
+        Board board = new Board(64, 300);
+        board.setFlag(board.index(10, 299), true);
+        CellList revealed = new CellList();
+        assertEquals(1, new ParallelFloodFill(board, POOL).reveal(board.index(30, 150), revealed));
+        assertEquals(board.size(), revealed.size());
+        assertFalse(board.hasFlag(board.index(10, 299)));
+    }
+}
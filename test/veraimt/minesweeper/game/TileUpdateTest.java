@@ -0,0 +1,131 @@
+package veraimt.minesweeper.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileUpdateTest {
+
+    /**
+     * Copy of a Tile Update, as the game reuses the event and its cells
+     */
+    private record Copy(TileUpdate.Kind kind, int[] cells, int minX, int minY, int maxX, int maxY) {
+        Copy(TileUpdate update) {
+            this(update.getKind(), update.toArray(), update.getMinX(), update.getMinY(), update.getMaxX(),
+                    update.getMaxY());
+        }
+    }
+
+    private static Game randomGame(int width, int height, SplittableRandom random) {
+        Game game = new Game(width, height, 0);
+        int[] bombs = random.ints(width * height / 8L, 0, width * height).distinct().toArray();
+        game.placeBombs(bombs);
+        return game;
+    }
+
+    private static boolean[] visible(Board board) {
+        boolean[] visible = new boolean[board.size()];
+        for (int i = 0; i < board.size(); i++)
+            visible[i] = board.isVisible(i);
+        return visible;
+    }
+
+    /**
+     * Checks that the update holds exactly the cells that became visible, each once, and their bounds
+     */
+    private static void assertRevealed(Board board, boolean[] before, Copy update) {
+        int[] expected = IntStream.range(0, board.size())
+                .filter(i -> board.isVisible(i) && !before[i])
+                .toArray();
+        int[] cells = update.cells().clone();
+        Arrays.sort(cells);
+        assertArrayEquals(expected, cells);
+
+        int minX = board.width, minY = board.height, maxX = -1, maxY = -1;
+        for (int i : expected) {
+            minX = Math.min(minX, board.xOf(i));
+            minY = Math.min(minY, board.yOf(i));
+            maxX = Math.max(maxX, board.xOf(i));
+            maxY = Math.max(maxY, board.yOf(i));
+        }
+        assertEquals(minX, update.minX());
+        assertEquals(minY, update.minY());
+        assertEquals(maxX, update.maxX());
+        assertEquals(maxY, update.maxY());
+    }
+
+    @Test
+    void floodDeliversExactlyTheRevealedCells() {
+        SplittableRandom random = new SplittableRandom(12);
+        for (Game.RevealMode mode : new Game.RevealMode[]{Game.RevealMode.SEQUENTIAL, Game.RevealMode.PARALLEL}) {
+            for (int round = 0; round < 50; round++) {
+                Game game = randomGame(5 + random.nextInt(80), 5 + random.nextInt(80), random);
+                game.setRevealMode(mode);
+                Board board = game.board;
+                List<Copy> updates = new ArrayList<>();
+                game.addTileUpdateListener(update -> updates.add(new Copy(update)));
+
+                //search hidden safe Tiles until the game is won
+                for (int i = 0; i < board.size() && game.getState() == Game.GameState.OK; i++) {
+                    if (board.isMine(i) || board.isVisible(i))
+                        continue;
+                    boolean[] before = visible(board);
+                    updates.clear();
+                    game.search(board.xOf(i), board.yOf(i));
+
+                    //winning by the last safe Tile leaves nothing for a WIN update
+                    assertEquals(1, updates.size());
+                    assertEquals(TileUpdate.Kind.REVEAL, updates.get(0).kind());
+                    assertRevealed(board, before, updates.get(0));
+                }
+                assertEquals(Game.GameState.WIN, game.getState(), mode + " round " + round);
+            }
+        }
+    }
+
+    @Test
+    void laterUpdatesDontLeakEarlierCells() {
+        //Bombs in column 4 split the board, the left side floods first
+        Game game = new Game(9, 5, 5);
+        Board board = game.board;
+        int[] bombs = new int[5];
+        for (int y = 0; y < 5; y++)
+            bombs[y] = board.index(4, y);
+        game.placeBombs(bombs);
+
+        List<Copy> updates = new ArrayList<>();
+        game.addTileUpdateListener(update -> updates.add(new Copy(update)));
+
+        boolean[] before = visible(board);
+        game.search(0, 0);
+        assertEquals(1, updates.size());
+        assertRevealed(board, before, updates.get(0));
+        assertEquals(4 * 5, updates.get(0).cells().length);
+
+        //a Flag is a single cell
+        game.toggleFlag(4, 2);
+        Copy flag = updates.get(1);
+        assertEquals(TileUpdate.Kind.FLAG, flag.kind());
+        assertArrayEquals(new int[]{board.index(4, 2)}, flag.cells());
+        assertEquals(4, flag.minX());
+        assertEquals(4, flag.maxX());
+        assertEquals(2, flag.minY());
+        assertEquals(2, flag.maxY());
+
+        //the right side only holds its own cells
+        before = visible(board);
+        game.search(8, 4);
+        assertEquals(Game.GameState.WIN, game.getState());
+        Copy right = updates.get(2);
+        assertEquals(TileUpdate.Kind.REVEAL, right.kind());
+        assertRevealed(board, before, right);
+        for (int i : right.cells())
+            assertTrue(board.xOf(i) > 4, "cell " + i + " leaked from the first update");
+    }
+}
@@ -0,0 +1,97 @@
+package veraimt.minesweeper.solver;
+
+import org.junit.jupiter.api.Test;
+import veraimt.minesweeper.game.Board;
+import veraimt.minesweeper.game.Difficulty;
+import veraimt.minesweeper.game.Game;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NoGuessGeneratorTest {
+
+    /**
+     * Checks the Bombs are distinct, on the grid and away from the first click
+     */
+    private static void assertValidLayout(int[] bombs, int width, int height, int count, int x, int y) {
+        assertEquals(count, bombs.length);
+        Set<Integer> distinct = new HashSet<>();
+        for (int i : bombs) {
+            assertTrue(i >= 0 && i < width * height, "Bomb " + i + " is outside the grid");
+            assertTrue(distinct.add(i), "two Bombs at " + i);
+            assertFalse(Math.abs(i % width - x) <= 1 && Math.abs(i / width - y) <= 1,
+                    "Bomb at " + i % width + "," + i / width + " next to the first click " + x + "," + y);
+        }
+    }
+
+    /**
+     * Plays the layout from the first click with deductions only
+     * @return the state the game ended in, OK if the solver got stuck
+     */
+    private static Game.GameState solve(int width, int height, int[] bombs, int x, int y) {
+        Game game = new Game(width, height, bombs.length);
+        game.placeBombs(bombs);
+        Board board = game.board;
+        Solver solver = new Solver(game);
+        game.search(x, y);
+        while (game.getState() == Game.GameState.OK && solver.solve()) {
+            int i;
+            while ((i = solver.nextSafe()) >= 0 && game.getState() == Game.GameState.OK)
+                game.search(board.xOf(i), board.yOf(i));
+            while ((i = solver.nextMine()) >= 0 && game.getState() == Game.GameState.OK)
+                game.toggleFlag(board.xOf(i), board.yOf(i));
+        }
+        return game.getState();
+    }
+
+    @Test
+    void layoutsAreSolvedWithoutGuessing() {
+        //a generous budget, these grids are solved in a few milliseconds
+        NoGuessGenerator generator = new NoGuessGenerator(60_000);
+        SplittableRandom random = new SplittableRandom(21);
+        for (Difficulty difficulty : Difficulty.values()) {
+            for (int round = 0; round < 20; round++) {
+                int width = 9 + random.nextInt(22);
+                int height = 9 + random.nextInt(8);
+                int bombs = difficulty.bombs(width, height);
+                int x = random.nextInt(width);
+                int y = random.nextInt(height);
+
+                NoGuessGenerator.Result result = generator.generate(width, height, bombs, x, y, random.split());
+                assertTrue(result.solvable(), difficulty + " " + width + "*" + height + " wasn't solved");
+                assertValidLayout(result.bombs(), width, height, bombs, x, y);
+                assertEquals(Game.GameState.WIN, solve(width, height, result.bombs(), x, y),
+                        difficulty + " " + width + "*" + height + " needs a guess from " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void sameRandomSameLayout() {
+        NoGuessGenerator generator = new NoGuessGenerator(60_000);
+        int[] first = generator.generate(30, 16, 99, 4, 4, new SplittableRandom(3)).bombs();
+        int[] second = generator.generate(30, 16, 99, 4, 4, new SplittableRandom(3)).bombs();
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    void budgetEndsTheGeneration() {
+        //too dense to be solved without guessing in a millisecond
+        NoGuessGenerator generator = new NoGuessGenerator(1);
+        int width = 200;
+        int height = 200;
+        int bombs = width * height / 3;
+        NoGuessGenerator.Result result = generator.generate(width, height, bombs, 100, 100,
+                new SplittableRandom(22));
+
+        assertFalse(result.solvable());
+        assertTrue(result.attempts() >= 1);
+        //the last layout is still a valid one
+        assertValidLayout(result.bombs(), width, height, bombs, 100, 100);
+        //the budget is checked whenever the solver is stuck, so it is overrun by a single solver pass at most
+        assertTrue(result.nanos() < 5_000_000_000L, "took " + result.nanos() / 1_000_000 + "ms");
+    }
+}
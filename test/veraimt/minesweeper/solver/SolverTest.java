@@ -0,0 +1,77 @@
+package veraimt.minesweeper.solver;
+
+import org.junit.jupiter.api.Test;
+import veraimt.minesweeper.game.Board;
+import veraimt.minesweeper.game.Difficulty;
+import veraimt.minesweeper.game.Game;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverTest {
+
+    /**
+     * Plays the given amount of games, guessing when the solver is stuck, and checks every deduction
+     * @return amount of won games
+     */
+    private static int play(int width, int height, Difficulty difficulty, int games, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int wins = 0;
+        for (int n = 0; n < games; n++) {
+            Game game = new Game(width, height, difficulty.bombs(width, height));
+            Board board = game.board;
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            game.randomize(x, y, random.nextLong());
+            Solver solver = new Solver(game);
+            game.search(x, y);
+
+            while (game.getState() == Game.GameState.OK) {
+                if (!solver.solve()) {
+                    int guess = solver.bestGuess();
+                    assertTrue(guess >= 0, "no guess on a running game");
+                    assertTrue(solver.getGuessProbability() <= 1, "probability above 1");
+                    game.search(board.xOf(guess), board.yOf(guess));
+                    continue;
+                }
+                int i;
+                while ((i = solver.nextSafe()) >= 0 && game.getState() == Game.GameState.OK) {
+                    assertFalse(board.isMine(i), "cell " + i + " deduced to be safe is a Bomb");
+                    game.search(board.xOf(i), board.yOf(i));
+                }
+                while ((i = solver.nextMine()) >= 0 && game.getState() == Game.GameState.OK) {
+                    assertTrue(board.isMine(i), "cell " + i + " deduced to be a Bomb is safe");
+                    game.toggleFlag(board.xOf(i), board.yOf(i));
+                }
+            }
+            if (game.getState() == Game.GameState.WIN)
+                wins++;
+        }
+        return wins;
+    }
+
+    @Test
+    void deductionsAreNeverWrong() {
+        for (Difficulty difficulty : Difficulty.values())
+            play(30, 16, difficulty, 300, difficulty.ordinal());
+        //small grids end with the Bombs left deciding the last cells
+        play(8, 8, Difficulty.HARD, 500, 7);
+    }
+
+    @Test
+    void winsMostEasyGames() {
+        assertTrue(play(30, 16, Difficulty.EASY, 200, 11) > 180);
+    }
+
+    @Test
+    void guessesTheSafestCell() {
+        Game game = new Game(10, 10, 10);
+        game.randomize(5, 5, 1L);
+        Solver solver = new Solver(game);
+        int guess = solver.bestGuess();
+        //nothing is revealed yet, every cell has the same probability
+        assertTrue(guess >= 0);
+        assertEquals(0.1, solver.getGuessProbability(), 1e-9);
+    }
+}